@@ -0,0 +1,65 @@
+package com.umassdining.benchmarks;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource that counts statement executions, each one a round trip to
+ * the database: a batch counts once however many rows it carries.
+ */
+public final class CountingDataSource extends DelegatingDataSource {
+
+    private final AtomicLong executions = new AtomicLong();
+
+    public CountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public void reset() {
+        executions.set(0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return result instanceof Statement statement ? count(statement) : result;
+            });
+    }
+
+    private Statement count(Statement statement) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+            : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    executions.incrementAndGet();
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.umassdining.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Stand-ins for Spring Data repositories and Spring-injected fields, so
+ * services can be benchmarked without a database or application context.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    /**
+     * Proxy a repository interface; each named method is answered by its handler,
+     * any other call fails loudly so a benchmark never silently measures a no-op
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> handlers) {
+        Map<String, Function<Object[], Object>> methods = new HashMap<>(handlers);
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] {repositoryType},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "toString": return "InMemory" + repositoryType.getSimpleName();
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "equals": return proxy == args[0];
+                    default: break;
+                }
+                Function<Object[], Object> handler = methods.get(method.getName());
+                if (handler == null) {
+                    throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + method.getName());
+                }
+                return handler.apply(args != null ? args : new Object[0]);
+            });
+    }
+
+    /**
+     * Set a field normally filled in by @Value
+     */
+    public static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
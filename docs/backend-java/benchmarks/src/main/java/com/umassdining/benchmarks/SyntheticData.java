@@ -0,0 +1,154 @@
+package com.umassdining.benchmarks;
+
+import com.umassdining.dto.CategoryRatingSummary;
+import com.umassdining.dto.DishRating;
+import com.umassdining.enums.MealType;
+import com.umassdining.model.DiningHall;
+import com.umassdining.model.MenuItem;
+import com.umassdining.model.UserPreference;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic menus, ratings and scraped text for benchmarks.
+ *
+ * Dish names come from a small vocabulary so that menus and ratings overlap
+ * the way real repeated dishes do.
+ */
+public final class SyntheticData {
+
+    public static final String[] HALL_IDS = {"worcester", "franklin", "berkshire", "hampshire"};
+    public static final String[] CATEGORIES = {"Grill", "Pizza", "Pasta", "Salad Bar", "Deli", "Desserts", "Global", "Entrees"};
+    public static final String[] TAGS = {"vegetarian", "vegan", "dairy-free", "gluten-free", "halal", "kosher", "contains-nuts", "spicy"};
+
+    private static final String[] STYLES = {"Grilled", "Roasted", "Baked", "Fried", "Steamed", "Spicy", "Herb", "BBQ", "Lemon", "Garlic"};
+    private static final String[] MAINS = {"Chicken", "Beef", "Pork", "Salmon", "Tofu", "Turkey", "Shrimp", "Chickpea",
+        "Eggplant", "Mushroom", "Lentil", "Cod", "Lamb", "Tempeh", "Black Bean", "Paneer", "Sausage", "Veggie", "Tuna", "Ham"};
+    private static final String[] DISHES = {"Pizza", "Pasta", "Burger", "Sandwich", "Wrap", "Salad", "Soup", "Rice Bowl", "Curry", "Tacos"};
+    private static final String[] INGREDIENTS = {"cheese", "mushrooms", "onions", "peanuts", "cilantro", "olives",
+        "bacon", "cream", "peppers", "garlic", "tomato", "spinach", "egg", "sesame"};
+    private static final String[] NOISE = {"Hours: 7:00 AM - 10:30 AM", "Nutrition Information", "Lunch", "Dinner",
+        "Breakfast", "Grill Station", "Deli Station", "International", "Allergen key", "Menu subject to change",
+        "Contact Us", "Sustainability", "gf = gluten free", "Dessert Bar"};
+
+    private SyntheticData() {
+    }
+
+    public static String dishName(Random random) {
+        return STYLES[random.nextInt(STYLES.length)] + " " + MAINS[random.nextInt(MAINS.length)]
+            + " " + DISHES[random.nextInt(DISHES.length)];
+    }
+
+    /**
+     * A day's menu of the given size with dining halls attached
+     */
+    public static List<MenuItem> menu(int size, LocalDate date, long seed) {
+        Random random = new Random(seed);
+        Map<String, DiningHall> halls = new HashMap<>();
+        for (String id : HALL_IDS) {
+            halls.put(id, DiningHall.builder()
+                .id(id)
+                .name(Character.toUpperCase(id.charAt(0)) + id.substring(1) + " Dining Commons")
+                .shortName(id)
+                .location("Amherst")
+                .build());
+        }
+
+        MealType[] mealTypes = MealType.values();
+        List<MenuItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String hallId = HALL_IDS[random.nextInt(HALL_IDS.length)];
+            List<String> tags = new ArrayList<>();
+            for (String tag : TAGS) {
+                if (random.nextInt(4) == 0) tags.add(tag);
+            }
+            items.add(MenuItem.builder()
+                .id(UUID.nameUUIDFromBytes(("item-" + seed + "-" + i).getBytes()).toString())
+                .name(dishName(random))
+                .description(random.nextInt(3) == 0 ? null
+                    : "Served with " + INGREDIENTS[random.nextInt(INGREDIENTS.length)]
+                        + " and " + INGREDIENTS[random.nextInt(INGREDIENTS.length)])
+                .diningHallId(hallId)
+                .diningHall(halls.get(hallId))
+                .mealType(mealTypes[random.nextInt(mealTypes.length)])
+                .menuDate(date)
+                .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .calories(random.nextInt(10) == 0 ? null : 150 + random.nextInt(900))
+                .protein(random.nextInt(10) == 0 ? null : random.nextInt(60))
+                .carbs(random.nextInt(10) == 0 ? null : random.nextInt(120))
+                .fat(random.nextInt(10) == 0 ? null : random.nextInt(50))
+                .tags(tags)
+                .build());
+        }
+        return items;
+    }
+
+    public static UserPreference preferences(String userId, long seed) {
+        Random random = new Random(seed);
+        return UserPreference.builder()
+            .id(UUID.nameUUIDFromBytes(("pref-" + userId).getBytes()).toString())
+            .userId(userId)
+            .dietaryPreferences(List.of(TAGS[random.nextInt(4)], TAGS[4 + random.nextInt(2)]))
+            .dislikedIngredients(List.of(INGREDIENTS[random.nextInt(INGREDIENTS.length)],
+                INGREDIENTS[random.nextInt(INGREDIENTS.length)], "peanut"))
+            .favoriteHalls(List.of(HALL_IDS[random.nextInt(HALL_IDS.length)]))
+            .build();
+    }
+
+    /**
+     * Ratings by a number of users, each rating a number of random dishes
+     */
+    public static List<DishRating> ratings(int users, int ratingsPerUser, String userPrefix, long seed) {
+        Random random = new Random(seed);
+        List<DishRating> ratings = new ArrayList<>(users * ratingsPerUser);
+        for (int u = 0; u < users; u++) {
+            String userId = userPrefix + u;
+            for (int r = 0; r < ratingsPerUser; r++) {
+                ratings.add(new DishRating(userId, dishName(random), 1 + random.nextInt(5)));
+            }
+        }
+        return ratings;
+    }
+
+    /**
+     * Per-category totals for a user's ratings, as the taste profile query returns them
+     */
+    public static List<CategoryRatingSummary> categorySummary(int ratingCount, long seed) {
+        Random random = new Random(seed);
+        Map<String, long[]> totals = new HashMap<>();
+        for (int i = 0; i < ratingCount; i++) {
+            long[] entry = totals.computeIfAbsent(CATEGORIES[random.nextInt(CATEGORIES.length)], c -> new long[2]);
+            entry[0] += 1 + random.nextInt(5);
+            entry[1]++;
+        }
+        List<CategoryRatingSummary> summaries = new ArrayList<>();
+        totals.forEach((category, entry) -> summaries.add(new CategoryRatingSummary(category, entry[0], entry[1])));
+        return summaries;
+    }
+
+    /**
+     * Text of scraped page elements: mostly dish names, some headers and boilerplate
+     */
+    public static List<String> scrapedLines(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 6) {
+                lines.add(dishName(random) + (random.nextInt(5) == 0 ? " (GF)" : ""));
+            } else if (kind < 8) {
+                lines.add(NOISE[random.nextInt(NOISE.length)]);
+            } else {
+                lines.add(dishName(random) + " with " + INGREDIENTS[random.nextInt(INGREDIENTS.length)]
+                    + " and " + INGREDIENTS[random.nextInt(INGREDIENTS.length)]);
+            }
+        }
+        return lines;
+    }
+}
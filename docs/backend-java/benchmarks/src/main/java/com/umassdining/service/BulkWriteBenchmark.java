@@ -0,0 +1,119 @@
+package com.umassdining.service;
+
+import com.umassdining.benchmarks.CountingDataSource;
+import com.umassdining.benchmarks.SyntheticData;
+import com.umassdining.model.MenuItem;
+import com.umassdining.repository.MenuItemBulkWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a scrape's new menu items and tags into an in-memory H2 database.
+ *
+ * rowAtATime sends one INSERT per item and per tag, as saveAll does without
+ * JDBC batching; bulkInsert is MenuItemBulkWriter's batch path. Statement
+ * counts are printed once per trial. H2 has no COPY, so the PostgreSQL
+ * path, two statements per call, is not timed here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkWriteBenchmark {
+
+    private static final String INSERT_ITEM = "INSERT INTO menu_items (id, name, description, dining_hall_id, " +
+        "meal_type, menu_date, category, calories, protein, carbs, fat, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"1000", "5000"})
+    int itemCount;
+
+    private SingleConnectionDataSource h2;
+    private CountingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private MenuItemBulkWriter writer;
+    private List<MenuItem> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        h2 = new SingleConnectionDataSource("jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1", "sa", "", true);
+        dataSource = new CountingDataSource(h2);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS menu_items (id VARCHAR(36) PRIMARY KEY, " +
+            "name VARCHAR(255) NOT NULL, description TEXT, dining_hall_id VARCHAR(50), " +
+            "meal_type VARCHAR(20) NOT NULL, menu_date DATE NOT NULL, category VARCHAR(100), " +
+            "calories INT, protein INT, carbs INT, fat INT, created_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS menu_item_tags (" +
+            "menu_item_id VARCHAR(36) REFERENCES menu_items(id) ON DELETE CASCADE, tag VARCHAR(50))");
+        writer = new MenuItemBulkWriter(jdbcTemplate);
+
+        clear();
+        dataSource.reset();
+        rowAtATime();
+        long rowStatements = dataSource.getExecutions();
+        clear();
+        dataSource.reset();
+        bulkInsert();
+        long bulkStatements = dataSource.getExecutions();
+        System.out.printf("%n# %d items: %d statements row at a time, %d bulk%n",
+            itemCount, rowStatements, bulkStatements);
+    }
+
+    @Setup(Level.Invocation)
+    public void clear() {
+        jdbcTemplate.execute("DELETE FROM menu_items");
+        items = SyntheticData.menu(itemCount, LocalDate.now(), 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        h2.destroy();
+    }
+
+    /**
+     * Batched inserts, as the diff engine and MenuService.saveMenuItems now write
+     */
+    @Benchmark
+    public int bulkInsert() {
+        return writer.insertAll(items);
+    }
+
+    /**
+     * One INSERT per item and per tag
+     */
+    @Benchmark
+    public int rowAtATime() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (MenuItem item : items) {
+            jdbcTemplate.update(INSERT_ITEM, item.getId(), item.getName(), item.getDescription(),
+                item.getDiningHallId(), item.getMealType().name(), Date.valueOf(item.getMenuDate()),
+                item.getCategory(), item.getCalories(), item.getProtein(), item.getCarbs(), item.getFat(), now);
+            for (String tag : item.getTags()) {
+                jdbcTemplate.update("INSERT INTO menu_item_tags (menu_item_id, tag) VALUES (?, ?)", item.getId(), tag);
+            }
+        }
+        return items.size();
+    }
+}
@@ -0,0 +1,87 @@
+package com.umassdining.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.umassdining.benchmarks.SyntheticData;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row to DTO mapping and JSON serialization of a day's menu.
+ *
+ * Mapping happens once per scrape when the snapshot is built; requests then
+ * select shared DTOs out of it and serialize them with the application's
+ * Jackson settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuMappingBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    int menuSize;
+
+    private List<MenuItemRow> rows;
+    private MenuSnapshot snapshot;
+    private List<MenuItemDTO> lunch;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        rows = SyntheticData.menu(menuSize, today, 42).stream().map(MenuItemRow::of).toList();
+        snapshot = MenuSnapshot.build(today, 1, rows);
+        lunch = snapshot.toDTOs(snapshot.mealTypePositions(MealType.LUNCH));
+        // Same settings Spring Boot applies to the web ObjectMapper
+        objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    /**
+     * Map every row of the day into the snapshot and its indexes
+     */
+    @Benchmark
+    public MenuSnapshot buildSnapshot() {
+        return MenuSnapshot.build(snapshot.getDate(), 1, rows);
+    }
+
+    /**
+     * Select one hall and meal, as GET /api/menus does
+     */
+    @Benchmark
+    public List<MenuItemDTO> selectHallMeal() {
+        return snapshot.toDTOs(snapshot.positions(SyntheticData.HALL_IDS[0], MealType.LUNCH));
+    }
+
+    /**
+     * Serialize a meal's DTOs to the response body
+     */
+    @Benchmark
+    public byte[] serializeMeal() throws Exception {
+        return objectMapper.writeValueAsBytes(lunch);
+    }
+}
@@ -0,0 +1,164 @@
+package com.umassdining.service;
+
+import com.umassdining.benchmarks.InMemoryRepositories;
+import com.umassdining.benchmarks.SyntheticData;
+import com.umassdining.dto.DishRating;
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.model.MenuItem;
+import com.umassdining.model.UserPreference;
+import com.umassdining.repository.DiningHallRepository;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.repository.MenuItemRatingHistogramRepository;
+import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.repository.UserPreferenceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Recommendation scoring against synthetic menus and rating histories.
+ *
+ * menuSize is the number of items on the day's menu, userRatings the number
+ * of ratings the scored user has written; a fixed community of raters feeds
+ * the dish similarities either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    private static final String USER_ID = "student-0";
+    private static final int COMMUNITY_USERS = 500;
+    private static final int COMMUNITY_RATINGS_PER_USER = 40;
+
+    @Param({"100", "1000", "10000", "50000"})
+    int menuSize;
+
+    @Param({"0", "50", "500", "5000"})
+    int userRatings;
+
+    private RecommendationService recommendationService;
+    private RecommendationService.MealCandidates candidates;
+    private PreferenceMatcher.SnapshotMatcher prefs;
+    private UserTasteProfile tasteProfile;
+    private ItemSimilarityEngine.UserView similarDishes;
+    private long[] scratch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        List<MenuItem> menu = SyntheticData.menu(menuSize, today, 42);
+        List<MenuItemRow> rows = menu.stream().map(MenuItemRow::of).toList();
+        UserPreference preference = SyntheticData.preferences(USER_ID, 7);
+
+        List<DishRating> dishRatings = new ArrayList<>(
+            SyntheticData.ratings(COMMUNITY_USERS, COMMUNITY_RATINGS_PER_USER, "peer-", 11));
+        dishRatings.addAll(SyntheticData.ratings(1, userRatings, "student-", 13));
+
+        MenuItemRepository menuItemRepository = InMemoryRepositories.stub(MenuItemRepository.class,
+            Map.<String, Function<Object[], Object>>of("findRowsByMenuDate", args -> rows));
+        UserPreferenceRepository userPreferenceRepository = InMemoryRepositories.stub(UserPreferenceRepository.class,
+            Map.<String, Function<Object[], Object>>of("findByUserId",
+                args -> USER_ID.equals(args[0]) ? Optional.of(preference) : Optional.empty()));
+        MealRatingRepository mealRatingRepository = InMemoryRepositories.stub(MealRatingRepository.class,
+            Map.<String, Function<Object[], Object>>of(
+                "findAllDishRatings", args -> dishRatings,
+                "getCategoryRatingSummaryForUser", args -> SyntheticData.categorySummary(userRatings, 13)));
+        MenuItemRatingHistogramRepository histogramRepository =
+            InMemoryRepositories.stub(MenuItemRatingHistogramRepository.class, Map.of());
+
+        MenuSnapshotStore menuSnapshotStore = new MenuSnapshotStore(menuItemRepository,
+            new MenuSearchIndex(menuItemRepository),
+            InMemoryRepositories.stub(DiningHallRepository.class, Map.of()));
+        InMemoryRepositories.setField(menuSnapshotStore, "daysBack", 7);
+        InMemoryRepositories.setField(menuSnapshotStore, "daysAhead", 14);
+
+        ItemSimilarityEngine itemSimilarityEngine = new ItemSimilarityEngine(mealRatingRepository);
+        InMemoryRepositories.setField(itemSimilarityEngine, "neighborCount", 20);
+        InMemoryRepositories.setField(itemSimilarityEngine, "shrinkage", 10.0);
+        itemSimilarityEngine.rebuild();
+
+        // Roughly a third of the menu has community ratings
+        RatingCounters ratingCounters = new RatingCounters(histogramRepository, mealRatingRepository);
+        Random random = new Random(17);
+        for (MenuItem item : menu) {
+            if (random.nextInt(3) == 0) {
+                for (int r = random.nextInt(20); r >= 0; r--) {
+                    ratingCounters.record(item.getId(), 1 + random.nextInt(5), null);
+                }
+            }
+        }
+
+        // A TTL of zero rebuilds the guest list on every call, so the benchmark measures the ranking
+        PopularRecommendationCache popularRecommendationCache = new PopularRecommendationCache();
+        InMemoryRepositories.setField(popularRecommendationCache, "ttlSeconds", 0L);
+        InMemoryRepositories.setField(popularRecommendationCache, "ratingThreshold", 25L);
+
+        PreferenceMatcherCache preferenceMatcherCache = new PreferenceMatcherCache(userPreferenceRepository);
+        UserTasteProfileCache userTasteProfileCache = new UserTasteProfileCache(mealRatingRepository, 10_000);
+
+        recommendationService = new RecommendationService(menuSnapshotStore, preferenceMatcherCache,
+            ratingCounters, popularRecommendationCache, userTasteProfileCache, new RecommendationStore(),
+            itemSimilarityEngine);
+
+        MenuSnapshot snapshot = menuSnapshotStore.get(today);
+        candidates = recommendationService.loadCandidates(snapshot, MealType.LUNCH);
+        PreferenceMatcher matcher = preferenceMatcherCache.get(USER_ID).orElseThrow();
+        prefs = matcher.forSnapshot(snapshot);
+        scratch = matcher.newScratch();
+        tasteProfile = userTasteProfileCache.get(USER_ID);
+        similarDishes = itemSimilarityEngine.forUser(USER_ID);
+    }
+
+    /**
+     * Scoring alone, every lunch item for one user
+     */
+    @Benchmark
+    public void calculateScore(Blackhole blackhole) {
+        List<MenuSnapshot.Item> items = candidates.items();
+        for (int i = 0; i < items.size(); i++) {
+            blackhole.consume(recommendationService.calculateScore(
+                items.get(i), prefs, tasteProfile, similarDishes, scratch));
+        }
+    }
+
+    /**
+     * Full ranking for one user: matcher binding, scoring, top-k and DTOs
+     */
+    @Benchmark
+    public boolean rankUser() {
+        return recommendationService.precompute(USER_ID, candidates);
+    }
+
+    /**
+     * Guest recommendations, ranked by popularity
+     */
+    @Benchmark
+    public List<RecommendationDTO> popularItems() {
+        return recommendationService.getRecommendations(null, MealType.LUNCH, RecommendationService.DEFAULT_LIMIT);
+    }
+}
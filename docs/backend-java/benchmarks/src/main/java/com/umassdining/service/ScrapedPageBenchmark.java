@@ -0,0 +1,95 @@
+package com.umassdining.service;
+
+import com.umassdining.benchmarks.SyntheticData;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Pages per second through parseHall, the per-page CPU cost of a scrape.
+ *
+ * Point pageDir at a directory of saved hall pages (*.html), e.g.
+ * {@code -p pageDir=/tmp/menus}; they are parsed once up front so only
+ * element walking and classification are timed. With no directory a
+ * synthetic page of menu-like lines is used. Item counts are printed once
+ * per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScrapedPageBenchmark {
+
+    @Param({""})
+    String pageDir;
+
+    private ScrapingService scrapingService;
+    private List<Document> pages;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Parsing does not touch the diff engine, fetcher or page state
+        scrapingService = new ScrapingService(null, null, null,
+            new MenuTextClassifier(new ClassPathResource("menu-lexicon.txt")));
+        today = LocalDate.now();
+
+        pages = new ArrayList<>();
+        if (pageDir.isEmpty()) {
+            StringBuilder html = new StringBuilder("<html><body><ul>");
+            for (String line : SyntheticData.scrapedLines(400, 42)) {
+                html.append("<li>").append(line).append("</li>");
+            }
+            pages.add(Jsoup.parse(html.append("</ul></body></html>").toString()));
+        } else {
+            try (Stream<Path> files = Files.list(Path.of(pageDir))) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".html")).sorted().toList()) {
+                    pages.add(Jsoup.parse(file.toFile(), null));
+                }
+            }
+            if (pages.isEmpty()) {
+                throw new IllegalStateException("No .html pages in " + pageDir);
+            }
+        }
+
+        int items = 0;
+        for (Document page : pages) {
+            items += scrapingService.parseHall(page, "worcester", today).size();
+        }
+        System.out.printf("%n# %d pages, %d items%n", pages.size(), items);
+    }
+
+    /**
+     * Walk and classify every page once; throughput is page sets per second
+     */
+    @Benchmark
+    public void parsePages(Blackhole blackhole) {
+        for (Document page : pages) {
+            blackhole.consume(scrapingService.parseHall(page, "worcester", today));
+        }
+    }
+}
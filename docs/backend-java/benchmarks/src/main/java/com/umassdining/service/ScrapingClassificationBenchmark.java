@@ -0,0 +1,55 @@
+package com.umassdining.service;
+
+import com.umassdining.benchmarks.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text classification done for every element of a scraped menu page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScrapingClassificationBenchmark {
+
+    @Param({"500", "5000"})
+    int lineCount;
+
+    private MenuTextClassifier classifier;
+    private List<String> lines;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classifier = new MenuTextClassifier(new ClassPathResource("menu-lexicon.txt"));
+        lines = SyntheticData.scrapedLines(lineCount, 42);
+    }
+
+    /**
+     * Classify a page's lines the way parseHall walks them, one lexicon scan each
+     */
+    @Benchmark
+    public void classifyPage(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(classifier.classify(line));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.umassdining.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.umassdining.benchmarks.SyntheticData;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.MenuItemRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialize and parse time of a full day's menu in each negotiated format.
+ *
+ * Payload sizes, raw and gzipped, are printed once per trial since JMH only
+ * reports time; they are the numbers to compare for low-end phones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int menuSize;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    ResponseFormats.Format format;
+
+    private List<MenuItemDTO> day;
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<MenuItemRow> rows = SyntheticData.menu(menuSize, today, 42).stream().map(MenuItemRow::of).toList();
+        MenuSnapshot snapshot = MenuSnapshot.build(today, 1, rows);
+        day = snapshot.toDTOs(snapshot.positions(null, null));
+
+        // Same settings Spring Boot applies to the web ObjectMapper and its builder
+        ObjectMapper json = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = new ResponseFormats(json, builder).mapper(format);
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, MenuItemDTO.class);
+        payload = mapper.writeValueAsBytes(day);
+
+        System.out.printf("%n# %s, %d items: %d bytes, %d gzipped%n",
+            format, day.size(), payload.length, gzip(payload).length);
+    }
+
+    /**
+     * Write the day's DTOs, as a cache miss on GET /api/menus does
+     */
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(day);
+    }
+
+    /**
+     * Read the payload back into DTOs, as a client does
+     */
+    @Benchmark
+    public List<MenuItemDTO> parse() throws Exception {
+        return mapper.readValue(payload, listType);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
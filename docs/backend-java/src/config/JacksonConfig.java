@@ -0,0 +1,31 @@
+package com.umassdining.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.util.FieldSet;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Route menu item and recommendation serialization through the fields= filter;
+     * responses that set no filters fall back to writing every property
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder -> builder
+            .mixIn(MenuItemDTO.class, SparseFieldset.class)
+            .mixIn(RecommendationDTO.class, SparseFieldset.class)
+            .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(FieldSet.FILTER)
+    private abstract static class SparseFieldset {
+    }
+}
@@ -31,6 +31,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/recommendations/**").authenticated()
                 .requestMatchers("/api/preferences/**").authenticated()
                 .requestMatchers("/api/ratings/**").authenticated()
+                .requestMatchers("/api/meal-plans/**").authenticated()
                 .anyRequest().authenticated()
             );
         
@@ -0,0 +1,48 @@
+package com.umassdining.config;
+
+import com.umassdining.service.ResponseFormats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ResponseFormats responseFormats;
+
+    /**
+     * Let clients opt into CBOR or Smile with Accept. Spring already registers
+     * both converters on plain mappers, and the first match wins, so ours
+     * replace them in place; JSON stays ahead of them for wildcard requests
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replace(converters, MappingJackson2CborHttpMessageConverter.class,
+            new MappingJackson2CborHttpMessageConverter(responseFormats.mapper(ResponseFormats.Format.CBOR)));
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class,
+            new MappingJackson2SmileHttpMessageConverter(responseFormats.mapper(ResponseFormats.Format.SMILE)));
+    }
+
+    private static void replace(List<HttpMessageConverter<?>> converters,
+                                Class<?> type, HttpMessageConverter<?> converter) {
+        int index = -1;
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) {
+                index = i;
+                break;
+            }
+        }
+        converters.removeIf(type::isInstance);
+        if (index >= 0) {
+            converters.add(index, converter);
+        } else {
+            converters.add(converter);
+        }
+    }
+}
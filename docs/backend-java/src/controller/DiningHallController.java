@@ -2,11 +2,16 @@ package com.umassdining.controller;
 
 import com.umassdining.model.DiningHall;
 import com.umassdining.repository.DiningHallRepository;
+import com.umassdining.service.DiningHallVersion;
+import com.umassdining.service.ResponseFormats;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/dining-halls")
@@ -15,23 +20,34 @@ import java.util.List;
 public class DiningHallController {
 
     private final DiningHallRepository diningHallRepository;
+    private final DiningHallVersion diningHallVersion;
 
     /**
      * GET /api/dining-halls
-     * Get all dining halls
+     * Get all dining halls; answers If-None-Match with 304 without a query
      */
     @GetMapping
-    public ResponseEntity<List<DiningHall>> getAllDiningHalls() {
+    public ResponseEntity<List<DiningHall>> getAllDiningHalls(WebRequest request) {
+        if (request.checkNotModified(etag("halls-" + diningHallVersion.get(), request))) {
+            return null;
+        }
         List<DiningHall> halls = diningHallRepository.findAll();
         return ResponseEntity.ok(halls);
     }
 
     /**
      * GET /api/dining-halls/{id}
-     * Get a specific dining hall by ID
+     * Get a specific dining hall by ID; unknown IDs are 404 even with If-None-Match
      */
     @GetMapping("/{id}")
-    public ResponseEntity<DiningHall> getDiningHall(@PathVariable String id) {
+    public ResponseEntity<DiningHall> getDiningHall(@PathVariable String id, WebRequest request) {
+        Optional<String> version = diningHallVersion.get(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag("hall-" + version.get(), request))) {
+            return null;
+        }
         return diningHallRepository.findById(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
@@ -46,4 +62,10 @@ public class DiningHallController {
         List<DiningHall> halls = diningHallRepository.findByLocationContainingIgnoreCase(location);
         return ResponseEntity.ok(halls);
     }
+
+    // Each Accept-negotiated format is its own representation
+    private static String etag(String version, WebRequest request) {
+        ResponseFormats.Format format = ResponseFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        return "\"" + version + format.getEtagSuffix() + "\"";
+    }
 }
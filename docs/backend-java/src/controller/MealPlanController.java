@@ -0,0 +1,62 @@
+package com.umassdining.controller;
+
+import com.umassdining.dto.MealPlanDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.service.MealPlannerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/meal-plans")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class MealPlanController {
+
+    private final MealPlannerService mealPlannerService;
+
+    /**
+     * GET /api/meal-plans
+     * Build item combinations at one hall that meet macro targets,
+     * e.g. ?hall=worcester&mealType=DINNER&minProtein=40&maxCalories=800
+     *
+     * The user's dietary preferences and disliked ingredients filter the items.
+     *
+     * Query params:
+     * - hall: Dining hall ID
+     * - maxCalories: Calorie ceiling for the whole combination (max: 10000)
+     * - minProtein: Protein floor in grams (default: 0)
+     * - maxCarbs, maxFat: Optional ceilings in grams
+     * - maxItems: Items per combination (default: 3, max: 6)
+     * - mealType: BREAKFAST, LUNCH, DINNER (default: current meal)
+     * - date: Menu date (default: today)
+     * - limit: Number of combinations (default: 5, max: 20)
+     */
+    @GetMapping
+    public ResponseEntity<List<MealPlanDTO>> getMealPlans(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam String hall,
+            @RequestParam int maxCalories,
+            @RequestParam(defaultValue = "0") int minProtein,
+            @RequestParam(required = false) Integer maxCarbs,
+            @RequestParam(required = false) Integer maxFat,
+            @RequestParam(defaultValue = "3") int maxItems,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        String userId = userDetails.getUsername();
+        MealPlannerService.Targets targets =
+            new MealPlannerService.Targets(maxCalories, minProtein, maxCarbs, maxFat, maxItems);
+        List<MealPlanDTO> plans = mealPlannerService.plan(userId, date != null ? date : LocalDate.now(),
+            hall, mealType, targets, limit);
+        return ResponseEntity.ok(plans);
+    }
+}
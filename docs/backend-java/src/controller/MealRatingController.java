@@ -0,0 +1,57 @@
+package com.umassdining.controller;
+
+import com.umassdining.dto.MealRatingDTO;
+import com.umassdining.dto.MenuItemRatingStats;
+import com.umassdining.service.MealRatingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ratings")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class MealRatingController {
+
+    private final MealRatingService mealRatingService;
+
+    /**
+     * POST /api/ratings
+     * Rate a menu item (1-5), replacing any earlier rating by the same user
+     */
+    @PostMapping
+    public ResponseEntity<MealRatingDTO> rateMenuItem(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody MealRatingDTO ratingDTO) {
+
+        String userId = userDetails.getUsername();
+        MealRatingDTO saved = mealRatingService.rateMenuItem(userId, ratingDTO);
+        return ResponseEntity.ok(saved);
+    }
+
+    /**
+     * GET /api/ratings
+     * Get the authenticated user's ratings
+     */
+    @GetMapping
+    public ResponseEntity<List<MealRatingDTO>> getUserRatings(
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        String userId = userDetails.getUsername();
+        return ResponseEntity.ok(mealRatingService.getUserRatings(userId));
+    }
+
+    /**
+     * GET /api/ratings/items/{menuItemId}
+     * Get average, count and spread of ratings for a menu item
+     */
+    @GetMapping("/items/{menuItemId}")
+    public ResponseEntity<MenuItemRatingStats> getItemStats(@PathVariable String menuItemId) {
+        return ResponseEntity.ok(mealRatingService.getItemStats(menuItemId));
+    }
+}
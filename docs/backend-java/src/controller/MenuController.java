@@ -1,15 +1,33 @@
 package com.umassdining.controller;
 
+import com.umassdining.dto.MenuHistoryPageDTO;
 import com.umassdining.dto.MenuItemDTO;
 import com.umassdining.enums.MealType;
+import com.umassdining.exception.BadRequestException;
+import com.umassdining.service.MenuHistoryService;
+import com.umassdining.service.MenuResponseCache;
+import com.umassdining.service.MenuSearchIndex;
 import com.umassdining.service.MenuService;
+import com.umassdining.service.MenuSnapshot;
+import com.umassdining.service.MenuSnapshotStore;
+import com.umassdining.service.ResponseFormats;
+import com.umassdining.util.FieldSet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/menus")
@@ -17,7 +35,15 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class MenuController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final Pattern NUTRITION_PARAM =
+        Pattern.compile("(?i)(calories|protein|carbs|fat)(?![a-z])");
+
     private final MenuService menuService;
+    private final MenuSnapshotStore menuSnapshotStore;
+    private final MenuResponseCache menuResponseCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuHistoryService menuHistoryService;
 
     /**
      * GET /api/menus
@@ -27,48 +53,293 @@ public class MenuController {
      * - date: Menu date (default: today)
      * - hall: Dining hall ID
      * - mealType: BREAKFAST, LUNCH, DINNER
+     * - fields: Comma-separated MenuItemDTO fields to return, e.g. id,name,diningHallName,tags
+     *
+     * Answers If-None-Match with 304 from the menu version alone, and
+     * otherwise writes bytes serialized once per menu version
      */
     @GetMapping
-    public ResponseEntity<List<MenuItemDTO>> getMenuItems(
+    public ResponseEntity<byte[]> getMenuItems(
             @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) String hall,
-            @RequestParam(required = false) MealType mealType) {
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
         
         LocalDate menuDate = date != null ? date : LocalDate.now();
-        List<MenuItemDTO> items = menuService.getMenuItems(menuDate, hall, mealType);
-        return ResponseEntity.ok(items);
+        return cachedMenu(menuDate, hall, mealType, fieldSet(fields), request);
     }
 
     /**
      * GET /api/menus/search
-     * Search menu items by name
+     * Full-text search over menu items, ranked by relevance
+     *
+     * Query params:
+     * - q: Search text; typos and partial last words are tolerated
+     * - from, to: Date range (default: today)
+     * - hall: Dining hall ID
+     * - mealType: BREAKFAST, LUNCH, DINNER
+     * - limit: Max results (default 20, max 100)
+     * - fields: Fields to return, as for GET /api/menus
      */
     @GetMapping("/search")
-    public ResponseEntity<List<MenuItemDTO>> searchMenu(@RequestParam String q) {
-        List<MenuItemDTO> items = menuService.searchMenu(q);
-        return ResponseEntity.ok(items);
+    public ResponseEntity<MappingJacksonValue> searchMenu(
+            @RequestParam String q,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String hall,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSet fieldSet = fieldSet(fields);
+        // Default dates follow the calendar, so the day is part of the tag
+        LocalDate today = LocalDate.now();
+        String tag = "search-" + menuSearchIndex.getVersion() + "-" + today;
+        if (request.checkNotModified(etag(tag, fieldSet, request))) {
+            return null;
+        }
+        List<MenuItemDTO> items = menuService.searchMenu(q,
+            from != null ? from : today, to != null ? to : today, hall, mealType, limit);
+        return negotiated(items, fieldSet);
     }
 
     /**
      * GET /api/menus/filtered
-     * Get menu items filtered by dietary preferences
+     * Get menu items filtered by dietary tags
+     *
+     * Query params (all optional, combined with AND):
+     * - include: Tags, any of which must be present
+     * - exclude: Tags, none of which may be present
+     * - expr: Boolean tag expression, e.g. "vegan AND gluten-free AND NOT contains-nuts"
+     * - date: Menu date (default: today)
+     * - hall: Dining hall ID
+     * - mealType: BREAKFAST, LUNCH, DINNER
+     * - fields: Fields to return, as for GET /api/menus
      */
     @GetMapping("/filtered")
-    public ResponseEntity<List<MenuItemDTO>> getFilteredMenu(
+    public ResponseEntity<MappingJacksonValue> getFilteredMenu(
             @RequestParam(required = false) List<String> include,
-            @RequestParam(required = false) List<String> exclude) {
-        List<MenuItemDTO> items = menuService.getFilteredMenu(include, exclude);
-        return ResponseEntity.ok(items);
+            @RequestParam(required = false) List<String> exclude,
+            @RequestParam(required = false) String expr,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String hall,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSet fieldSet = fieldSet(fields);
+        LocalDate menuDate = date != null ? date : LocalDate.now();
+        if (request.checkNotModified(etag(menuDate, fieldSet, request))) {
+            return null;
+        }
+        List<MenuItemDTO> items = menuService.getFilteredMenu(menuDate, hall, mealType, include, exclude, expr);
+        return negotiated(items, fieldSet);
+    }
+
+    /**
+     * GET /api/menus/nutrition
+     * Get menu items by nutrition ranges, e.g. ?calories<=600&protein>=30&sort=protein_desc
+     *
+     * Query params:
+     * - calories, protein, carbs, fat: conditions with <=, >=, <, >, = a whole number,
+     *   or =null / !=null; items without a value never match a range
+     * - sort: nutrient with _asc or _desc; items without a value sort last
+     * - date, hall, mealType: as for GET /api/menus
+     * - limit: Max results (default 100)
+     * - fields: Fields to return, as for GET /api/menus
+     */
+    @GetMapping("/nutrition")
+    public ResponseEntity<MappingJacksonValue> getNutritionMenu(
+            @RequestParam MultiValueMap<String, String> params,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String hall,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSet fieldSet = fieldSet(fields);
+        LocalDate menuDate = date != null ? date : LocalDate.now();
+        if (request.checkNotModified(etag(menuDate, fieldSet, request))) {
+            return null;
+        }
+        List<MenuItemDTO> items = menuService.getNutritionMenu(menuDate, hall, mealType,
+            nutritionConditions(params), sort, limit);
+        return negotiated(items, fieldSet);
+    }
+
+    /**
+     * GET /api/menus/history
+     * Get menu items over a date range, one page at a time in (date, id) order
+     *
+     * Query params:
+     * - from, to: Date range, inclusive
+     * - hall: Dining hall ID
+     * - mealType: BREAKFAST, LUNCH, DINNER
+     * - cursor: nextCursor from the previous page
+     * - limit: Page size (default 200, max 1000)
+     * - fields: Fields to return, as for GET /api/menus; only those columns are queried
+     */
+    @GetMapping(value = "/history", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE, ResponseFormats.SMILE_VALUE})
+    public ResponseEntity<MappingJacksonValue> getMenuHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String hall,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = fieldSet(fields);
+        MenuHistoryPageDTO page = menuHistoryService.getHistoryPage(from, to, hall, mealType, cursor, limit, fieldSet);
+        return negotiated(page, fieldSet);
+    }
+
+    /**
+     * GET /api/menus/history with Accept: application/x-ndjson
+     * Stream every item in the range as one JSON object per line
+     */
+    @GetMapping(value = "/history", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamMenuHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String hall,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = fieldSet(fields);
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        StreamingResponseBody body = out -> menuHistoryService.writeHistory(from, to, hall, mealType, fieldSet, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .body(body);
     }
 
     /**
      * GET /api/menus/today
-     * Get all of today's menu items
+     * Get all of today's menu items, served from the response cache
      */
     @GetMapping("/today")
-    public ResponseEntity<List<MenuItemDTO>> getTodaysMenu() {
-        List<MenuItemDTO> items = menuService.getTodaysMenu();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<byte[]> getTodaysMenu(
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return cachedMenu(LocalDate.now(), null, null, fieldSet(fields), request);
+    }
+
+    /**
+     * Write the pre-serialized body in the negotiated format, or its gzip variant
+     * when the client accepts it
+     */
+    private ResponseEntity<byte[]> cachedMenu(LocalDate date, String hall, MealType mealType,
+                                              FieldSet fields, WebRequest request) {
+        ResponseFormats.Format format = ResponseFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // Tag and body both come from this snapshot, so a concurrent change cannot pair them wrongly
+        MenuSnapshot snapshot = menuSnapshotStore.get(date);
+        long version = snapshot.getVersion();
+        if (request.checkNotModified(etag("menu-" + version + (gzip ? "-gzip" : ""), fields, request))) {
+            return null;
+        }
+
+        // Only the snapshot window and halls on the menu get cache slots, so clients cannot fill it
+        Supplier<List<MenuItemDTO>> items = () -> snapshot.toDTOs(snapshot.positions(hall, mealType));
+        boolean cacheable = menuSnapshotStore.isCacheable(date)
+            && (hall == null || snapshot.getHalls().code(hall) >= 0);
+        MenuResponseCache.Body body = cacheable
+            ? menuResponseCache.get(date, hall, mealType, fields, format, version, items)
+            : menuResponseCache.render(items.get(), fields, format, version);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
+        }
+        return response.body(body.getBytes());
+    }
+
+    /**
+     * Strong ETag for any response built from a date's menu; versions are unique across dates
+     */
+    private String etag(LocalDate date, FieldSet fields, WebRequest request) {
+        return etag("menu-" + menuSnapshotStore.version(date), fields, request);
+    }
+
+    /**
+     * Formats, encoded variants and fieldsets carry different bytes, so each gets its own strong ETag
+     */
+    private static String etag(String tag, FieldSet fields, WebRequest request) {
+        String format = ResponseFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT)).getEtagSuffix();
+        return "\"" + tag + format + (fields != null ? ";" + fields : "") + "\"";
+    }
+
+    /**
+     * Body limited to the requested MenuItemDTO fields, or written whole when there are none;
+     * the converter picks JSON, CBOR or Smile from Accept
+     */
+    private static ResponseEntity<MappingJacksonValue> negotiated(Object body, FieldSet fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fields != null) {
+            value.setFilters(fields.getFilters());
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(value);
+    }
+
+    private static FieldSet fieldSet(String fields) {
+        try {
+            return FieldSet.parse(MenuItemDTO.class, fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild conditions from the query string: "calories<=600" arrives as name "calories<"
+     * with value "600", and "calories<600" as a name with an empty value
+     */
+    private static List<String> nutritionConditions(MultiValueMap<String, String> params) {
+        List<String> conditions = new ArrayList<>();
+        params.forEach((name, values) -> {
+            if (NUTRITION_PARAM.matcher(name).lookingAt()) {
+                for (String value : values) {
+                    conditions.add(value == null || value.isEmpty() ? name : name + "=" + value);
+                }
+            }
+        });
+        return conditions;
+    }
+
+    /**
+     * True if Accept-Encoding lists gzip (or *) without q=0
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            return !refused;
+        }
+        return false;
     }
 }
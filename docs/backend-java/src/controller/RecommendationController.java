@@ -1,9 +1,14 @@
 package com.umassdining.controller;
 
 import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.exception.BadRequestException;
 import com.umassdining.service.RecommendationService;
+import com.umassdining.util.FieldSet;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
@@ -22,20 +27,30 @@ public class RecommendationController {
      * GET /api/recommendations
      * Get personalized meal recommendations for the authenticated user
      * 
-     * Returns top 10 recommended menu items based on:
+     * Returns the top recommended menu items based on:
      * - User's dietary preferences
      * - Disliked ingredients
      * - Favorite dining halls
      * - Past ratings
      * - Current meal time (breakfast/lunch/dinner)
+     *
+     * Query params:
+     * - mealType: BREAKFAST, LUNCH, DINNER (default: current meal)
+     * - limit: Number of items to return (default: 10, max: 100)
+     * - fields: Comma-separated RecommendationDTO fields to return, e.g. id,name,score
      */
     @GetMapping
-    public ResponseEntity<List<RecommendationDTO>> getRecommendations(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<MappingJacksonValue> getRecommendations(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields) {
         
+        FieldSet fieldSet = fieldSet(fields);
         String userId = userDetails.getUsername(); // Or extract from JWT
-        List<RecommendationDTO> recommendations = recommendationService.getRecommendations(userId);
-        return ResponseEntity.ok(recommendations);
+        List<RecommendationDTO> recommendations =
+            recommendationService.getRecommendations(userId, mealType, limit);
+        return negotiated(recommendations, fieldSet);
     }
 
     /**
@@ -44,8 +59,34 @@ public class RecommendationController {
      * Based on overall ratings and popularity
      */
     @GetMapping("/guest")
-    public ResponseEntity<List<RecommendationDTO>> getGuestRecommendations() {
-        List<RecommendationDTO> recommendations = recommendationService.getRecommendations(null);
-        return ResponseEntity.ok(recommendations);
+    public ResponseEntity<MappingJacksonValue> getGuestRecommendations(
+            @RequestParam(required = false) MealType mealType,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = fieldSet(fields);
+        List<RecommendationDTO> recommendations =
+            recommendationService.getRecommendations(null, mealType, limit);
+        return negotiated(recommendations, fieldSet);
+    }
+
+    /**
+     * Body limited to the requested fields, or written whole when there are none;
+     * the converter picks JSON, CBOR or Smile from Accept
+     */
+    private static ResponseEntity<MappingJacksonValue> negotiated(List<RecommendationDTO> recommendations,
+                                                                  FieldSet fields) {
+        MappingJacksonValue value = new MappingJacksonValue(recommendations);
+        if (fields != null) {
+            value.setFilters(fields.getFilters());
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(value);
+    }
+
+    private static FieldSet fieldSet(String fields) {
+        try {
+            return FieldSet.parse(RecommendationDTO.class, fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
     }
 }
@@ -0,0 +1,13 @@
+package com.umassdining.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryRatingSummary {
+    private String category;
+    private Long ratingSum;
+    private Long ratingCount;
+}
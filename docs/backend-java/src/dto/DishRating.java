@@ -0,0 +1,13 @@
+package com.umassdining.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DishRating {
+    private String userId;
+    private String dishName;
+    private Integer rating;
+}
@@ -0,0 +1,16 @@
+package com.umassdining.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPlanDTO {
+    private List<MenuItemDTO> items;
+    private Integer calories;
+    private Integer protein;
+    private Integer carbs;
+    private Integer fat;
+}
@@ -0,0 +1,14 @@
+package com.umassdining.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuHistoryPageDTO {
+    private List<MenuItemDTO> items;
+    // Opaque cursor for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.umassdining.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuItemRatingStats {
+    private String menuItemId;
+    private Double averageRating;
+    private Long ratingCount;
+    private Double averageSquaredRating;
+
+    /**
+     * Population standard deviation derived from E[x^2] - E[x]^2
+     */
+    public double getStandardDeviation() {
+        if (averageRating == null || averageSquaredRating == null) {
+            return 0;
+        }
+        double variance = averageSquaredRating - averageRating * averageRating;
+        return variance > 0 ? Math.sqrt(variance) : 0;
+    }
+}
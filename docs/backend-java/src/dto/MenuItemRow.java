@@ -0,0 +1,87 @@
+package com.umassdining.dto;
+
+import com.umassdining.enums.MealType;
+import com.umassdining.model.MenuItem;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flat read-side row for a menu item, filled by a single query joined to
+ * dining_halls with the item's tags aggregated into one delimited column.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuItemRow {
+
+    public static final String TAG_SEPARATOR = "|";
+
+    private String id;
+    private String name;
+    private String description;
+    private String diningHallId;
+    private String diningHallName;
+    private MealType mealType;
+    private LocalDate menuDate;
+    private String category;
+    private Integer calories;
+    private Integer protein;
+    private Integer carbs;
+    private Integer fat;
+    private String tags;
+
+    /**
+     * Row for an entity already in memory, e.g. one that was just saved
+     */
+    public static MenuItemRow of(MenuItem item) {
+        return new MenuItemRow(item.getId(), item.getName(), item.getDescription(), item.getDiningHallId(),
+            item.getDiningHall() != null ? item.getDiningHall().getName() : null,
+            item.getMealType(), item.getMenuDate(), item.getCategory(),
+            item.getCalories(), item.getProtein(), item.getCarbs(), item.getFat(),
+            item.getTags() != null && !item.getTags().isEmpty()
+                ? String.join(TAG_SEPARATOR, item.getTags()) : null);
+    }
+
+    /**
+     * Response DTO for this row, for reads that bypass the snapshot
+     */
+    public MenuItemDTO toDTO() {
+        return MenuItemDTO.builder()
+            .id(id)
+            .name(name)
+            .description(description)
+            .diningHallId(diningHallId)
+            .diningHallName(diningHallName)
+            .mealType(mealType != null ? mealType.name().toLowerCase() : null)
+            .menuDate(menuDate)
+            .category(category)
+            .calories(calories)
+            .protein(protein)
+            .carbs(carbs)
+            .fat(fat)
+            .tags(getTagList())
+            .build();
+    }
+
+    /**
+     * Split the aggregated tag column back into tags
+     */
+    public List<String> getTagList() {
+        List<String> result = new ArrayList<>();
+        if (tags == null || tags.isEmpty()) {
+            return result;
+        }
+        int start = 0;
+        while (start <= tags.length()) {
+            int end = tags.indexOf(TAG_SEPARATOR, start);
+            if (end < 0) end = tags.length();
+            if (end > start) result.add(tags.substring(start, end));
+            start = end + TAG_SEPARATOR.length();
+        }
+        return result;
+    }
+}
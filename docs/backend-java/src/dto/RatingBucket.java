@@ -0,0 +1,13 @@
+package com.umassdining.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingBucket {
+    private String menuItemId;
+    private Integer rating;
+    private Long ratingCount;
+}
@@ -0,0 +1,8 @@
+package com.umassdining.exception;
+
+public class BadRequestException extends RuntimeException {
+    
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.umassdining.model;
 
+import com.umassdining.enums.MealType;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -52,6 +53,10 @@ public class MenuItem {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Set when a rated item drops off its menu: the row stays for its ratings but is no longer served
+    @Column(name = "removed_at")
+    private LocalDateTime removedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,37 @@
+package com.umassdining.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scrape_page_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScrapePageState {
+
+    @Id
+    private String url;
+
+    // Menu date the validators and hash below belong to
+    @Column(name = "menu_date")
+    private LocalDate menuDate;
+
+    private String etag;
+
+    @Column(name = "last_modified")
+    private String lastModified;
+
+    // SHA-256 of the page body, hex
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "checked_at")
+    private LocalDateTime checkedAt;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+}
@@ -2,6 +2,7 @@ package com.umassdining.repository;
 
 import com.umassdining.model.DiningHall;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +19,8 @@ public interface DiningHallRepository extends JpaRepository<DiningHall, String>
 
     // Find by location
     List<DiningHall> findByLocationContainingIgnoreCase(String location);
+
+    // All halls with their features, in one query
+    @Query("SELECT DISTINCT h FROM DiningHall h LEFT JOIN FETCH h.features")
+    List<DiningHall> findAllWithFeatures();
 }
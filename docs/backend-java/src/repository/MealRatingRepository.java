@@ -1,13 +1,18 @@
 package com.umassdining.repository;
 
+import com.umassdining.dto.CategoryRatingSummary;
+import com.umassdining.dto.DishRating;
+import com.umassdining.dto.RatingBucket;
 import com.umassdining.model.MealRating;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface MealRatingRepository extends JpaRepository<MealRating, String> {
@@ -31,4 +36,24 @@ public interface MealRatingRepository extends JpaRepository<MealRating, String>
 
     // Get count of ratings for a menu item
     long countByMenuItemId(String menuItemId);
+
+    // Which of the given menu items have at least one rating
+    @Query("SELECT DISTINCT r.menuItemId FROM MealRating r WHERE r.menuItemId IN :menuItemIds")
+    Set<String> findRatedMenuItemIds(@Param("menuItemIds") Collection<String> menuItemIds);
+
+    // Get the rating histogram of every rated menu item in one grouped query
+    @Query("SELECT new com.umassdining.dto.RatingBucket(r.menuItemId, r.rating, COUNT(r)) " +
+           "FROM MealRating r GROUP BY r.menuItemId, r.rating")
+    List<RatingBucket> getRatingHistograms();
+
+    // Get a user's rating sum and count per menu category in one grouped query
+    @Query("SELECT new com.umassdining.dto.CategoryRatingSummary(m.category, SUM(r.rating), COUNT(r)) " +
+           "FROM MealRating r JOIN r.menuItem m " +
+           "WHERE r.userId = :userId AND m.category IS NOT NULL GROUP BY m.category")
+    List<CategoryRatingSummary> getCategoryRatingSummaryForUser(@Param("userId") String userId);
+
+    // Get every rating with the rated item's name, for building dish similarities
+    @Query("SELECT new com.umassdining.dto.DishRating(r.userId, m.name, r.rating) " +
+           "FROM MealRating r JOIN r.menuItem m")
+    List<DishRating> findAllDishRatings();
 }
@@ -0,0 +1,190 @@
+package com.umassdining.repository;
+
+import com.umassdining.model.MenuItem;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk insert path for new menu items and their tags, bypassing Hibernate.
+ *
+ * On PostgreSQL each call is two COPY statements, one per table, streamed
+ * as CSV; elsewhere it is JDBC batches of prepared inserts. Ids, creation
+ * time and a missing menu date are filled in here the way the entity's
+ * generator and @PrePersist would, so written items can be used as if
+ * they had been saved. Runs on the transaction's connection when there is one.
+ */
+@Repository
+@Slf4j
+public class MenuItemBulkWriter {
+
+    private static final String ITEM_COLUMNS =
+        "id, name, description, dining_hall_id, meal_type, menu_date, category, " +
+        "calories, protein, carbs, fat, created_at";
+    private static final String INSERT_ITEM =
+        "INSERT INTO menu_items (" + ITEM_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TAG = "INSERT INTO menu_item_tags (menu_item_id, tag) VALUES (?, ?)";
+    private static final String COPY_ITEMS = "COPY menu_items (" + ITEM_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_TAGS = "COPY menu_item_tags (menu_item_id, tag) FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @Value("${menu.bulk-write.use-copy:true}")
+    private boolean useCopy = true;
+
+    @Value("${menu.bulk-write.batch-size:500}")
+    private int batchSize = 500;
+
+    private volatile Boolean postgres;
+
+    public MenuItemBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+    }
+
+    /**
+     * Insert items that have not been saved yet, with their tags; returns the number written
+     */
+    public int insertAll(List<MenuItem> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String[]> tags = new ArrayList<>();
+        for (MenuItem item : items) {
+            if (item.getId() == null) item.setId(UUID.randomUUID().toString());
+            if (item.getMenuDate() == null) item.setMenuDate(LocalDate.now());
+            item.setCreatedAt(now);
+            if (item.getTags() != null) {
+                for (String tag : item.getTags()) {
+                    tags.add(new String[] {item.getId(), tag});
+                }
+            }
+        }
+
+        if (useCopy && isPostgres()) {
+            copy(items, tags);
+        } else {
+            batch(items, tags);
+        }
+        log.debug("Bulk inserted {} menu items with {} tags", items.size(), tags.size());
+        return items.size();
+    }
+
+    private void batch(List<MenuItem> items, List<String[]> tags) {
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, batchSize, (statement, item) -> {
+            statement.setString(1, item.getId());
+            statement.setString(2, item.getName());
+            statement.setString(3, item.getDescription());
+            statement.setString(4, item.getDiningHallId());
+            statement.setString(5, item.getMealType().name());
+            statement.setDate(6, Date.valueOf(item.getMenuDate()));
+            statement.setString(7, item.getCategory());
+            setInteger(statement, 8, item.getCalories());
+            setInteger(statement, 9, item.getProtein());
+            setInteger(statement, 10, item.getCarbs());
+            setInteger(statement, 11, item.getFat());
+            statement.setTimestamp(12, Timestamp.valueOf(item.getCreatedAt()));
+        });
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG, tags, batchSize, (statement, tag) -> {
+                statement.setString(1, tag[0]);
+                statement.setString(2, tag[1]);
+            });
+        }
+    }
+
+    private void copy(List<MenuItem> items, List<String[]> tags) {
+        StringBuilder itemRows = new StringBuilder(items.size() * 160);
+        for (MenuItem item : items) {
+            appendRow(itemRows, item.getId(), item.getName(), item.getDescription(), item.getDiningHallId(),
+                item.getMealType().name(), item.getMenuDate(), item.getCategory(), item.getCalories(),
+                item.getProtein(), item.getCarbs(), item.getFat(), item.getCreatedAt());
+        }
+        StringBuilder tagRows = new StringBuilder(tags.size() * 48);
+        for (String[] tag : tags) {
+            appendRow(tagRows, tag[0], tag[1]);
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyManager.copyIn(COPY_ITEMS, new StringReader(itemRows.toString()));
+            if (!tags.isEmpty()) {
+                copyManager.copyIn(COPY_TAGS, new StringReader(tagRows.toString()));
+            }
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("COPY menu_items", COPY_ITEMS, e);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not stream COPY data", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    // One CSV line; null is an unquoted empty field, everything else is quoted
+    private static void appendRow(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.append(',');
+            Object value = values[i];
+            if (value == null) continue;
+            String text = value.toString();
+            out.append('"');
+            for (int j = 0; j < text.length(); j++) {
+                char c = text.charAt(j);
+                if (c == '"') out.append('"');
+                out.append(c);
+            }
+            out.append('"');
+        }
+        out.append('\n');
+    }
+
+    private static void setInteger(PreparedStatement statement, int index, Integer value)
+            throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName);
+                known = "PostgreSQL".equalsIgnoreCase(product);
+            } catch (MetaDataAccessException e) {
+                known = false;
+            }
+            postgres = known;
+        }
+        return known;
+    }
+}
@@ -0,0 +1,9 @@
+package com.umassdining.repository;
+
+import com.umassdining.model.MenuItemRatingHistogram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MenuItemRatingHistogramRepository extends JpaRepository<MenuItemRatingHistogram, String> {
+}
@@ -1,24 +1,85 @@
 package com.umassdining.repository;
 
+import com.umassdining.dto.MenuItemRow;
 import com.umassdining.model.MenuItem;
 import com.umassdining.enums.MealType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface MenuItemRepository extends JpaRepository<MenuItem, String> {
+public interface MenuItemRepository extends JpaRepository<MenuItem, String>, MenuItemRowQueries {
 
     // Find all menu items for a specific date
     List<MenuItem> findByMenuDate(LocalDate date);
 
+    // Select list and grouping shared by the read-side row queries below
+    String MENU_ITEM_ROW_SELECT =
+        "SELECT new com.umassdining.dto.MenuItemRow(m.id, m.name, m.description, m.diningHallId, h.name, " +
+        "m.mealType, m.menuDate, m.category, m.calories, m.protein, m.carbs, m.fat, " +
+        "LISTAGG(t, '" + MenuItemRow.TAG_SEPARATOR + "') WITHIN GROUP (ORDER BY t)) " +
+        "FROM MenuItem m LEFT JOIN m.diningHall h LEFT JOIN m.tags t ";
+    String MENU_ITEM_ROW_GROUP_BY =
+        "GROUP BY m.id, m.name, m.description, m.diningHallId, h.name, m.mealType, m.menuDate, " +
+        "m.category, m.calories, m.protein, m.carbs, m.fat ";
+
+    // Read-side rows for a date in one round trip: hall name joined, tags aggregated per item.
+    // Read queries skip items marked removed; the entity finders below still return them
+    @Query(MENU_ITEM_ROW_SELECT + "WHERE m.menuDate = :date AND m.removedAt IS NULL " + MENU_ITEM_ROW_GROUP_BY +
+           "ORDER BY m.diningHallId, m.mealType, m.category, m.name")
+    List<MenuItemRow> findRowsByMenuDate(@Param("date") LocalDate date);
+
+    // Date range with optional hall and meal type, shared by the history queries below
+    String MENU_ITEM_ROW_RANGE =
+        "WHERE m.menuDate BETWEEN :from AND :to AND m.removedAt IS NULL " +
+        "AND (:hall IS NULL OR m.diningHallId = :hall) AND (:mealType IS NULL OR m.mealType = :mealType) ";
+
+    // One page of history rows in (menu_date, id) order, strictly after the keyset cursor
+    @Query(MENU_ITEM_ROW_SELECT + MENU_ITEM_ROW_RANGE +
+           "AND (m.menuDate > :afterDate OR (m.menuDate = :afterDate AND m.id > :afterId)) " +
+           MENU_ITEM_ROW_GROUP_BY + "ORDER BY m.menuDate, m.id")
+    List<MenuItemRow> findRowPage(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("hall") String hall,
+        @Param("mealType") MealType mealType,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") String afterId,
+        Pageable page
+    );
+
+    // History rows in (menu_date, id) order through a database cursor; must be consumed
+    // inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(MENU_ITEM_ROW_SELECT + MENU_ITEM_ROW_RANGE + MENU_ITEM_ROW_GROUP_BY + "ORDER BY m.menuDate, m.id")
+    Stream<MenuItemRow> streamRows(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("hall") String hall,
+        @Param("mealType") MealType mealType
+    );
+
+    // Read-side rows for every date from a day on, grouped by date
+    @Query(MENU_ITEM_ROW_SELECT + "WHERE m.menuDate >= :from AND m.removedAt IS NULL " + MENU_ITEM_ROW_GROUP_BY +
+           "ORDER BY m.menuDate, m.diningHallId, m.mealType, m.category, m.name")
+    List<MenuItemRow> findRowsByMenuDateFrom(@Param("from") LocalDate from);
+
     // Find menu items by date and dining hall
     List<MenuItem> findByMenuDateAndDiningHallId(LocalDate date, String diningHallId);
 
+    // Stored items of several halls for a date, for diffing against a scrape
+    List<MenuItem> findByMenuDateAndDiningHallIdIn(LocalDate date, Collection<String> diningHallIds);
+
     // Find menu items by date and meal type
     List<MenuItem> findByMenuDateAndMealType(LocalDate date, MealType mealType);
 
@@ -30,14 +91,14 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, String> {
     );
 
     // Find menu items with specific tags
-    @Query("SELECT m FROM MenuItem m JOIN m.tags t WHERE m.menuDate = :date AND t IN :tags")
+    @Query("SELECT m FROM MenuItem m JOIN m.tags t WHERE m.menuDate = :date AND m.removedAt IS NULL AND t IN :tags")
     List<MenuItem> findByMenuDateAndTagsIn(
         @Param("date") LocalDate date, 
         @Param("tags") List<String> tags
     );
 
     // Find menu items excluding certain tags (for dietary restrictions)
-    @Query("SELECT DISTINCT m FROM MenuItem m WHERE m.menuDate = :date " +
+    @Query("SELECT DISTINCT m FROM MenuItem m WHERE m.menuDate = :date AND m.removedAt IS NULL " +
            "AND NOT EXISTS (SELECT t FROM m.tags t WHERE t IN :excludeTags)")
     List<MenuItem> findByMenuDateExcludingTags(
         @Param("date") LocalDate date, 
@@ -45,7 +106,7 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, String> {
     );
 
     // Search menu items by name
-    @Query("SELECT m FROM MenuItem m WHERE m.menuDate = :date " +
+    @Query("SELECT m FROM MenuItem m WHERE m.menuDate = :date AND m.removedAt IS NULL " +
            "AND LOWER(m.name) LIKE LOWER(CONCAT('%', :search, '%'))")
     List<MenuItem> searchByName(
         @Param("date") LocalDate date, 
@@ -53,12 +114,12 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, String> {
     );
 
     // Get distinct categories for a date
-    @Query("SELECT DISTINCT m.category FROM MenuItem m WHERE m.menuDate = :date")
+    @Query("SELECT DISTINCT m.category FROM MenuItem m WHERE m.menuDate = :date AND m.removedAt IS NULL")
     List<String> findDistinctCategoriesByDate(@Param("date") LocalDate date);
 
-    // Check if menu exists for a date
-    boolean existsByMenuDate(LocalDate date);
+    // Check if a menu is listed for a date
+    boolean existsByMenuDateAndRemovedAtIsNull(LocalDate date);
 
-    // Delete old menus (for cleanup)
-    void deleteByMenuDateBefore(LocalDate date);
+    // Delete old menus (for cleanup), returning the removed items
+    List<MenuItem> deleteByMenuDateBefore(LocalDate date);
 }
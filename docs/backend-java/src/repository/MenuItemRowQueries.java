@@ -0,0 +1,23 @@
+package com.umassdining.repository;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.util.FieldSet;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * History row queries that select only the columns of a sparse fieldset
+ */
+public interface MenuItemRowQueries {
+
+    // Like findRowPage, filling only the requested fields plus id and menuDate
+    List<MenuItemRow> findSparseRowPage(FieldSet fields, LocalDate from, LocalDate to, String hall,
+                                        MealType mealType, LocalDate afterDate, String afterId, int limit);
+
+    // Like streamRows, filling only the requested fields plus id and menuDate
+    Stream<MenuItemRow> streamSparseRows(FieldSet fields, LocalDate from, LocalDate to, String hall,
+                                         MealType mealType);
+}
@@ -0,0 +1,132 @@
+package com.umassdining.repository;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.model.MenuItem;
+import com.umassdining.util.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Builds the MenuItemRow select list from a fieldset: unrequested columns are
+ * never read, the dining hall join is only made for diningHallName, and the
+ * tag join and its grouping only for tags. Query text is cached per fieldset.
+ */
+class MenuItemRowQueriesImpl implements MenuItemRowQueries {
+
+    // Select expression per MenuItemRow constructor argument, in constructor order
+    private static final String[][] COLUMNS = {
+        {"id", "m.id"},
+        {"name", "m.name"},
+        {"description", "m.description"},
+        {"diningHallId", "m.diningHallId"},
+        {"diningHallName", "h.name"},
+        {"mealType", "m.mealType"},
+        {"menuDate", "m.menuDate"},
+        {"category", "m.category"},
+        {"calories", "m.calories"},
+        {"protein", "m.protein"},
+        {"carbs", "m.carbs"},
+        {"fat", "m.fat"},
+        {"tags", "LISTAGG(t, '" + MenuItemRow.TAG_SEPARATOR + "') WITHIN GROUP (ORDER BY t)"},
+    };
+    private static final int TAGS = COLUMNS.length - 1;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<FieldSet, Select> pageSelects = new ConcurrentHashMap<>();
+    private final Map<FieldSet, Select> streamSelects = new ConcurrentHashMap<>();
+
+    @Override
+    public List<MenuItemRow> findSparseRowPage(FieldSet fields, LocalDate from, LocalDate to, String hall,
+                                               MealType mealType, LocalDate afterDate, String afterId, int limit) {
+        Select select = pageSelects.computeIfAbsent(fields, f -> Select.of(f,
+            "AND (m.menuDate > :afterDate OR (m.menuDate = :afterDate AND m.id > :afterId)) "));
+        List<Object[]> results = query(select, from, to, hall, mealType)
+            .setParameter("afterDate", afterDate)
+            .setParameter("afterId", afterId)
+            .setMaxResults(limit)
+            .getResultList();
+        List<MenuItemRow> rows = new ArrayList<>(results.size());
+        for (Object[] result : results) {
+            rows.add(select.toRow(result));
+        }
+        return rows;
+    }
+
+    @Override
+    public Stream<MenuItemRow> streamSparseRows(FieldSet fields, LocalDate from, LocalDate to, String hall,
+                                                MealType mealType) {
+        Select select = streamSelects.computeIfAbsent(fields, f -> Select.of(f, ""));
+        return query(select, from, to, hall, mealType)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+            .getResultStream()
+            .map(select::toRow);
+    }
+
+    private TypedQuery<Object[]> query(Select select, LocalDate from, LocalDate to, String hall, MealType mealType) {
+        return entityManager.createQuery(select.jpql, Object[].class)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .setParameter("hall", hall)
+            .setParameter("mealType", mealType);
+    }
+
+    /**
+     * Query text for one fieldset and the constructor slot of each selected column
+     */
+    private record Select(String jpql, int[] slots) {
+
+        static Select of(FieldSet fields, String keyset) {
+            List<Integer> slots = new ArrayList<>();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                String name = COLUMNS[i][0];
+                // id and menuDate are the keyset and are always read
+                if (fields.contains(name) || name.equals("id") || name.equals("menuDate")) {
+                    slots.add(i);
+                }
+            }
+            boolean hall = fields.contains("diningHallName");
+            boolean tags = fields.contains("tags");
+
+            StringBuilder jpql = new StringBuilder("SELECT ");
+            StringBuilder groupBy = new StringBuilder();
+            for (int n = 0; n < slots.size(); n++) {
+                String expression = COLUMNS[slots.get(n)][1];
+                jpql.append(n > 0 ? ", " : "").append(expression);
+                if (slots.get(n) != TAGS) {
+                    groupBy.append(groupBy.length() > 0 ? ", " : "").append(expression);
+                }
+            }
+            jpql.append(" FROM ").append(MenuItem.class.getSimpleName()).append(" m ");
+            if (hall) jpql.append("LEFT JOIN m.diningHall h ");
+            if (tags) jpql.append("LEFT JOIN m.tags t ");
+            jpql.append(MenuItemRepository.MENU_ITEM_ROW_RANGE).append(keyset);
+            if (tags) jpql.append("GROUP BY ").append(groupBy).append(' ');
+            jpql.append("ORDER BY m.menuDate, m.id");
+            return new Select(jpql.toString(), slots.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        MenuItemRow toRow(Object[] result) {
+            Object[] values = new Object[COLUMNS.length];
+            for (int n = 0; n < slots.length; n++) {
+                values[slots[n]] = result[n];
+            }
+            return new MenuItemRow((String) values[0], (String) values[1], (String) values[2],
+                (String) values[3], (String) values[4], (MealType) values[5], (LocalDate) values[6],
+                (String) values[7], (Integer) values[8], (Integer) values[9], (Integer) values[10],
+                (Integer) values[11], (String) values[12]);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.umassdining.repository;
+
+import com.umassdining.model.ScrapePageState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScrapePageStateRepository extends JpaRepository<ScrapePageState, String> {
+}
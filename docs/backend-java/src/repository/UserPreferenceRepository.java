@@ -2,8 +2,10 @@ package com.umassdining.repository;
 
 import com.umassdining.model.UserPreference;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +19,8 @@ public interface UserPreferenceRepository extends JpaRepository<UserPreference,
 
     // Delete preferences for a user
     void deleteByUserId(String userId);
+
+    // Get ids of all users who saved preferences
+    @Query("SELECT p.userId FROM UserPreference p")
+    List<String> findAllUserIds();
 }
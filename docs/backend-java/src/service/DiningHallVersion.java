@@ -0,0 +1,99 @@
+package com.umassdining.service;
+
+import com.umassdining.model.DiningHall;
+import com.umassdining.repository.DiningHallRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of the dining hall list and of each hall, used for conditional GETs.
+ *
+ * Versions are hashes of the persisted hall rows, so every instance serving
+ * the same data hands out the same ETags. They are computed on first use and
+ * kept; halls are seeded with the schema, so anything that writes halls at
+ * runtime must call {@link #bump()}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiningHallVersion {
+
+    private final DiningHallRepository diningHallRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Versions versions;
+
+    /**
+     * Version of the whole hall list
+     */
+    public String get() {
+        return versions().list();
+    }
+
+    /**
+     * Version of one hall, or empty if there is no such hall
+     */
+    public Optional<String> get(String hallId) {
+        return Optional.ofNullable(versions().halls().get(hallId));
+    }
+
+    /**
+     * Recompute the versions on next use, after halls were written
+     */
+    public void bump() {
+        generation.incrementAndGet();
+        versions = null;
+    }
+
+    private Versions versions() {
+        Versions current = versions;
+        if (current != null) {
+            return current;
+        }
+        long loadedAt = generation.get();
+        current = load();
+        // A bump during the load leaves the field empty, so the next read loads again
+        if (generation.get() == loadedAt) {
+            versions = current;
+        }
+        return current;
+    }
+
+    private Versions load() {
+        List<DiningHall> halls = new ArrayList<>(diningHallRepository.findAllWithFeatures());
+        halls.sort(Comparator.comparing(DiningHall::getId));
+        Map<String, String> byId = new HashMap<>();
+        StringBuilder all = new StringBuilder();
+        for (DiningHall hall : halls) {
+            String version = sha256(String.join("\u0000", hall.getId(), hall.getName(), hall.getShortName(),
+                hall.getLocation(), String.valueOf(hall.getBreakfastHours()), String.valueOf(hall.getLunchHours()),
+                String.valueOf(hall.getDinnerHours()), String.valueOf(hall.getFeatures())));
+            byId.put(hall.getId(), version);
+            all.append(version);
+        }
+        return new Versions(sha256(all.toString()), Map.copyOf(byId));
+    }
+
+    // Truncated to 64 bits, plenty to tell a handful of hall versions apart
+    private static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Versions(String list, Map<String, String> halls) {}
+}
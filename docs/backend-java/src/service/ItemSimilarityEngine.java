@@ -0,0 +1,335 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.DishRating;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.util.IntArrayList;
+import com.umassdining.util.TopKSelector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Item-to-item collaborative filtering over meal ratings.
+ *
+ * Menu items get fresh ids every day, so similarity is computed between
+ * dishes, keyed by normalized item name. Users and dishes are mapped to dense
+ * ints and ratings are kept as packed {@code id << 3 | rating} ints in sorted
+ * per-user and per-dish lists. Similarity is cosine over ratings centered on
+ * 3, shrunk towards zero for small overlaps, and the top-N neighbors of every
+ * dish are published as CSR arrays.
+ *
+ * New ratings are queued and applied by {@link #refresh()}, which only
+ * recomputes neighbors of dishes that were rated or co-rated with a rated
+ * dish. Readers use the last published {@link Model} without locking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSimilarityEngine {
+
+    private static final int RATING_BITS = 3;
+    private static final int RATING_MASK = (1 << RATING_BITS) - 1;
+    private static final double NEUTRAL_RATING = 3.0;
+
+    private final MealRatingRepository mealRatingRepository;
+
+    @Value("${recommendations.similarity.neighbors:20}")
+    private int neighborCount;
+
+    @Value("${recommendations.similarity.shrinkage:10}")
+    private double shrinkage;
+
+    // Append-only dictionaries, written under pendingLock and safe to read from any thread
+    private final Map<String, Integer> dishIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> userIds = new ConcurrentHashMap<>();
+
+    // Working state, only touched while holding the engine lock in refresh()
+    private final List<IntArrayList> ratingsByUser = new ArrayList<>();
+    private final List<IntArrayList> ratingsByDish = new ArrayList<>();
+    private double[] dishNorms = new double[0];
+    private int[][] neighborDishes = new int[0][];
+    private float[][] neighborWeights = new float[0][];
+
+    // Ratings written since the last refresh
+    private final Object pendingLock = new Object();
+    private IntArrayList pendingUsers = new IntArrayList();
+    private IntArrayList pendingDishes = new IntArrayList();
+    private IntArrayList pendingRatings = new IntArrayList();
+
+    private volatile Model model = Model.EMPTY;
+
+    /**
+     * Normalized dish key for a menu item name
+     */
+    public static String dishKey(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<DishRating> ratings = mealRatingRepository.findAllDishRatings();
+        for (DishRating rating : ratings) {
+            recordRating(rating.getUserId(), rating.getDishName(), rating.getRating());
+        }
+        refresh();
+        log.info("Built dish similarities from {} ratings ({} dishes, {} users) in {} ms",
+            ratings.size(), dishIds.size(), userIds.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Queue a rating write; it becomes visible to scoring after the next refresh
+     */
+    public void recordRating(String userId, String dishName, int rating) {
+        if (userId == null || dishName == null || rating < 1 || rating > 5) {
+            return;
+        }
+        String dishKey = dishKey(dishName);
+        synchronized (pendingLock) {
+            // Ids are assigned under the lock so they stay dense
+            int user = userIds.computeIfAbsent(userId, id -> userIds.size());
+            int dish = dishIds.computeIfAbsent(dishKey, key -> dishIds.size());
+            pendingUsers.add(user);
+            pendingDishes.add(dish);
+            pendingRatings.add(rating);
+        }
+    }
+
+    /**
+     * Apply queued ratings and republish neighbors for the dishes they affect
+     */
+    @Scheduled(fixedDelayString = "${recommendations.similarity.refresh-ms:300000}")
+    public synchronized void refresh() {
+        IntArrayList users;
+        IntArrayList dishes;
+        IntArrayList ratings;
+        synchronized (pendingLock) {
+            users = pendingUsers;
+            dishes = pendingDishes;
+            ratings = pendingRatings;
+            pendingUsers = new IntArrayList();
+            pendingDishes = new IntArrayList();
+            pendingRatings = new IntArrayList();
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        growTo(userIds.size(), dishIds.size());
+
+        BitSet dirty = new BitSet(ratingsByDish.size());
+        for (int i = 0; i < users.size(); i++) {
+            int user = users.get(i);
+            int dish = dishes.get(i);
+            int rating = ratings.get(i);
+            upsert(ratingsByUser.get(user), dish, rating);
+            upsert(ratingsByDish.get(dish), user, rating);
+            dirty.set(dish);
+        }
+
+        for (int dish = dirty.nextSetBit(0); dish >= 0; dish = dirty.nextSetBit(dish + 1)) {
+            dishNorms[dish] = norm(ratingsByDish.get(dish));
+        }
+
+        // A pair's similarity only changes if one side was rated, so recompute
+        // the dirty dishes and every dish that shares a rater with one of them
+        BitSet affected = (BitSet) dirty.clone();
+        for (int dish = dirty.nextSetBit(0); dish >= 0; dish = dirty.nextSetBit(dish + 1)) {
+            IntArrayList raters = ratingsByDish.get(dish);
+            for (int r = 0; r < raters.size(); r++) {
+                IntArrayList rated = ratingsByUser.get(raters.get(r) >>> RATING_BITS);
+                for (int j = 0; j < rated.size(); j++) {
+                    affected.set(rated.get(j) >>> RATING_BITS);
+                }
+            }
+        }
+
+        int dishCount = ratingsByDish.size();
+        double[] dot = new double[dishCount];
+        int[] overlap = new int[dishCount];
+        IntArrayList touched = new IntArrayList();
+        for (int dish = affected.nextSetBit(0); dish >= 0; dish = affected.nextSetBit(dish + 1)) {
+            computeNeighbors(dish, dot, overlap, touched);
+        }
+
+        model = publish();
+    }
+
+    /**
+     * Per-request view of one user's ratings against the current model
+     */
+    public UserView forUser(String userId) {
+        Model current = model;
+        Integer user = userId != null ? userIds.get(userId) : null;
+        if (user == null || user >= current.userCount) {
+            return new UserView(current, 0, 0);
+        }
+        return new UserView(current, current.userOffsets[user], current.userOffsets[user + 1]);
+    }
+
+    private void computeNeighbors(int dish, double[] dot, int[] overlap, IntArrayList touched) {
+        IntArrayList raters = ratingsByDish.get(dish);
+        for (int r = 0; r < raters.size(); r++) {
+            int packed = raters.get(r);
+            double centered = (packed & RATING_MASK) - NEUTRAL_RATING;
+            IntArrayList rated = ratingsByUser.get(packed >>> RATING_BITS);
+            for (int j = 0; j < rated.size(); j++) {
+                int other = rated.get(j) >>> RATING_BITS;
+                if (other == dish) continue;
+                if (overlap[other] == 0) touched.add(other);
+                overlap[other]++;
+                dot[other] += centered * ((rated.get(j) & RATING_MASK) - NEUTRAL_RATING);
+            }
+        }
+
+        TopKSelector best = new TopKSelector(neighborCount);
+        for (int t = 0; t < touched.size(); t++) {
+            int other = touched.get(t);
+            double denominator = dishNorms[dish] * dishNorms[other];
+            if (denominator > 0 && dot[other] > 0) {
+                double similarity = dot[other] / denominator * overlap[other] / (overlap[other] + shrinkage);
+                best.offer(other, similarity);
+            }
+            dot[other] = 0;
+            overlap[other] = 0;
+        }
+        touched.clear();
+
+        int[] ids = new int[best.size()];
+        double[] similarities = new double[best.size()];
+        int count = best.drainDescending(ids, similarities);
+        float[] weights = new float[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = (float) similarities[i];
+        }
+        neighborDishes[dish] = ids;
+        neighborWeights[dish] = weights;
+    }
+
+    private Model publish() {
+        int dishCount = ratingsByDish.size();
+        int[] neighborOffsets = new int[dishCount + 1];
+        for (int dish = 0; dish < dishCount; dish++) {
+            neighborOffsets[dish + 1] = neighborOffsets[dish] + neighborDishes[dish].length;
+        }
+        int[] neighbors = new int[neighborOffsets[dishCount]];
+        float[] weights = new float[neighborOffsets[dishCount]];
+        for (int dish = 0; dish < dishCount; dish++) {
+            System.arraycopy(neighborDishes[dish], 0, neighbors, neighborOffsets[dish], neighborDishes[dish].length);
+            System.arraycopy(neighborWeights[dish], 0, weights, neighborOffsets[dish], neighborWeights[dish].length);
+        }
+
+        int userCount = ratingsByUser.size();
+        int[] userOffsets = new int[userCount + 1];
+        for (int user = 0; user < userCount; user++) {
+            userOffsets[user + 1] = userOffsets[user] + ratingsByUser.get(user).size();
+        }
+        int[] userEntries = new int[userOffsets[userCount]];
+        for (int user = 0; user < userCount; user++) {
+            IntArrayList rated = ratingsByUser.get(user);
+            System.arraycopy(rated.buffer(), 0, userEntries, userOffsets[user], rated.size());
+        }
+
+        return new Model(dishCount, neighborOffsets, neighbors, weights, userCount, userOffsets, userEntries);
+    }
+
+    private void growTo(int userCount, int dishCount) {
+        while (ratingsByUser.size() < userCount) ratingsByUser.add(new IntArrayList(4));
+        while (ratingsByDish.size() < dishCount) ratingsByDish.add(new IntArrayList(4));
+        if (dishNorms.length < dishCount) {
+            int oldCount = neighborDishes.length;
+            dishNorms = Arrays.copyOf(dishNorms, dishCount);
+            neighborDishes = Arrays.copyOf(neighborDishes, dishCount);
+            neighborWeights = Arrays.copyOf(neighborWeights, dishCount);
+            for (int dish = oldCount; dish < dishCount; dish++) {
+                neighborDishes[dish] = new int[0];
+                neighborWeights[dish] = new float[0];
+            }
+        }
+    }
+
+    /**
+     * Insert or replace a packed (id, rating) entry, keeping the list sorted by id
+     */
+    private static void upsert(IntArrayList list, int id, int rating) {
+        int packed = (id << RATING_BITS) | rating;
+        int index = Arrays.binarySearch(list.buffer(), 0, list.size(), id << RATING_BITS);
+        int position = index >= 0 ? index : -index - 1;
+        if (position < list.size() && list.get(position) >>> RATING_BITS == id) {
+            list.set(position, packed);
+        } else {
+            list.insert(position, packed);
+        }
+    }
+
+    private static double norm(IntArrayList list) {
+        double sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            double centered = (list.get(i) & RATING_MASK) - NEUTRAL_RATING;
+            sum += centered * centered;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Immutable CSR snapshot of dish neighbors and user ratings
+     */
+    private record Model(int dishCount, int[] neighborOffsets, int[] neighborDishes, float[] neighborWeights,
+                         int userCount, int[] userOffsets, int[] userEntries) {
+
+        static final Model EMPTY = new Model(0, new int[1], new int[0], new float[0], 0, new int[1], new int[0]);
+    }
+
+    public final class UserView {
+
+        private final Model snapshot;
+        private final int from;
+        private final int to;
+
+        private UserView(Model snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Similarity-weighted average of the user's centered ratings on the dish's
+         * neighbors, in [-2, 2]; NaN when the user rated none of them
+         */
+        public double score(String dishKey) {
+            if (from == to) {
+                return Double.NaN;
+            }
+            Integer dish = dishIds.get(dishKey);
+            if (dish == null || dish >= snapshot.dishCount) {
+                return Double.NaN;
+            }
+
+            double weighted = 0;
+            double totalWeight = 0;
+            for (int n = snapshot.neighborOffsets[dish]; n < snapshot.neighborOffsets[dish + 1]; n++) {
+                int neighbor = snapshot.neighborDishes[n];
+                int index = Arrays.binarySearch(snapshot.userEntries, from, to, neighbor << RATING_BITS);
+                int position = index >= 0 ? index : -index - 1;
+                if (position < to && snapshot.userEntries[position] >>> RATING_BITS == neighbor) {
+                    float weight = snapshot.neighborWeights[n];
+                    weighted += weight * ((snapshot.userEntries[position] & RATING_MASK) - NEUTRAL_RATING);
+                    totalWeight += weight;
+                }
+            }
+            return totalWeight > 0 ? weighted / totalWeight : Double.NaN;
+        }
+    }
+}
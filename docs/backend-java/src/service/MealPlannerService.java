@@ -0,0 +1,323 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MealPlanDTO;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.exception.BadRequestException;
+import com.umassdining.util.IntArrayList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Builds item combinations for one hall and meal that meet macro targets,
+ * e.g. at least 40g protein under 800 kcal.
+ *
+ * Candidates are the meal's items with known calories and protein that pass
+ * the user's dietary preferences and disliked ingredients. Combinations are
+ * ranked by total protein, then by fewer calories. The search is a
+ * depth-first branch and bound over items sorted by protein; a suffix
+ * knapsack table over calorie buckets gives the most protein any completion
+ * could still add, which prunes branches that cannot enter the current
+ * top-N. The search stops at a latency budget and returns the best found.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MealPlannerService {
+
+    public static final int DEFAULT_MAX_ITEMS = 3;
+    public static final int MAX_ITEMS = 6;
+    public static final int DEFAULT_LIMIT = 5;
+    public static final int MAX_LIMIT = 20;
+    // Well above any meal; keeps the bucketed bound table and calorie sums small
+    public static final int MAX_CALORIES = 10_000;
+
+    private static final int MAX_CANDIDATES = 256;
+    private static final int MAX_BUCKETS = 200;
+    private static final int MIN_BUCKET_CALORIES = 5;
+    private static final int DEADLINE_CHECK_MASK = 1023;
+
+    private final MenuSnapshotStore menuSnapshotStore;
+    private final PreferenceMatcherCache preferenceMatcherCache;
+    private final RecommendationService recommendationService;
+
+    @Value("${meal-planner.budget-ms:5}")
+    private long budgetMs;
+
+    /**
+     * Macro constraints; maxCarbs and maxFat are optional
+     */
+    public record Targets(int maxCalories, int minProtein, Integer maxCarbs, Integer maxFat, int maxItems) {}
+
+    /**
+     * Best combinations for a user at one hall and meal, best first
+     */
+    public List<MealPlanDTO> plan(String userId, LocalDate date, String diningHallId, MealType mealType,
+                                  Targets targets, int limit) {
+        if (targets.maxCalories() <= 0 || targets.maxCalories() > MAX_CALORIES) {
+            throw new BadRequestException("maxCalories must be between 1 and " + MAX_CALORIES);
+        }
+        if (targets.maxItems() < 1 || targets.maxItems() > MAX_ITEMS) {
+            throw new BadRequestException("maxItems must be between 1 and " + MAX_ITEMS);
+        }
+
+        MenuSnapshot snapshot = menuSnapshotStore.get(date);
+        MealType meal = mealType != null ? mealType : recommendationService.getCurrentMealType();
+        Candidates candidates = loadCandidates(snapshot, diningHallId, meal, targets,
+            preferenceMatcherCache.get(userId));
+        if (candidates.size == 0) {
+            return List.of();
+        }
+
+        Search search = new Search(candidates, targets, Math.max(1, Math.min(limit, MAX_LIMIT)),
+            System.nanoTime() + budgetMs * 1_000_000L);
+        search.run();
+        if (search.timedOut) {
+            log.debug("Meal plan search for {} {} at {} stopped at the {} ms budget after {} nodes",
+                date, meal, diningHallId, budgetMs, search.nodes);
+        }
+
+        List<Plan> plans = new ArrayList<>(search.best);
+        plans.sort(Search.BEST_FIRST);
+        List<MealPlanDTO> result = new ArrayList<>(plans.size());
+        for (Plan plan : plans) {
+            List<MenuItemDTO> items = new ArrayList<>(plan.items.length);
+            for (int item : plan.items) {
+                items.add(snapshot.getItem(candidates.positions[item]).getDTO());
+            }
+            result.add(MealPlanDTO.builder()
+                .items(items)
+                .calories(plan.calories)
+                .protein(plan.protein)
+                .carbs(plan.carbs)
+                .fat(plan.fat)
+                .build());
+        }
+        return result;
+    }
+
+    private Candidates loadCandidates(MenuSnapshot snapshot, String diningHallId, MealType mealType,
+                                      Targets targets, Optional<PreferenceMatcher> matcher) {
+        NutritionIndex nutrition = snapshot.getNutrition();
+        PreferenceMatcher.SnapshotMatcher prefs = matcher.map(m -> m.forSnapshot(snapshot)).orElse(null);
+        long[] scratch = matcher.map(PreferenceMatcher::newScratch).orElse(null);
+
+        IntArrayList selected = new IntArrayList();
+        Set<String> names = new HashSet<>();
+        for (int position : snapshot.positions(diningHallId, mealType)) {
+            if (!nutrition.hasValue(NutritionIndex.Nutrient.CALORIES, position)
+                    || !nutrition.hasValue(NutritionIndex.Nutrient.PROTEIN, position)) {
+                continue;
+            }
+            if (nutrition.value(NutritionIndex.Nutrient.CALORIES, position) > targets.maxCalories()
+                    || !withinLimit(nutrition, NutritionIndex.Nutrient.CARBS, position, targets.maxCarbs())
+                    || !withinLimit(nutrition, NutritionIndex.Nutrient.FAT, position, targets.maxFat())) {
+                continue;
+            }
+            MenuSnapshot.Item item = snapshot.getItem(position);
+            if (prefs != null && (prefs.countDislikedIngredients(item, scratch) > 0
+                    || prefs.countDietaryMatches(item) < prefs.getDietaryPreferenceCount())) {
+                continue;
+            }
+            // The same dish served at two stations is one choice
+            if (names.add(item.getNameLower())) {
+                selected.add(position);
+            }
+        }
+
+        // Highest protein first so good plans are found early; past the cap keep the most protein-dense
+        Integer[] order = new Integer[selected.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = selected.get(i);
+        }
+        if (order.length > MAX_CANDIDATES) {
+            Arrays.sort(order, Comparator.comparingDouble((Integer p) ->
+                -(double) nutrition.value(NutritionIndex.Nutrient.PROTEIN, p)
+                    / Math.max(1, nutrition.value(NutritionIndex.Nutrient.CALORIES, p))));
+            order = Arrays.copyOf(order, MAX_CANDIDATES);
+        }
+        Arrays.sort(order, Comparator
+            .comparingInt((Integer p) -> -nutrition.value(NutritionIndex.Nutrient.PROTEIN, p))
+            .thenComparingInt(p -> nutrition.value(NutritionIndex.Nutrient.CALORIES, p)));
+
+        Candidates candidates = new Candidates(order.length);
+        for (int i = 0; i < order.length; i++) {
+            int position = order[i];
+            candidates.positions[i] = position;
+            candidates.calories[i] = nutrition.value(NutritionIndex.Nutrient.CALORIES, position);
+            candidates.protein[i] = nutrition.value(NutritionIndex.Nutrient.PROTEIN, position);
+            candidates.carbs[i] = valueOrZero(nutrition, NutritionIndex.Nutrient.CARBS, position);
+            candidates.fat[i] = valueOrZero(nutrition, NutritionIndex.Nutrient.FAT, position);
+        }
+        return candidates;
+    }
+
+    // An unknown value cannot be shown to respect a limit
+    private static boolean withinLimit(NutritionIndex nutrition, NutritionIndex.Nutrient nutrient,
+                                       int position, Integer limit) {
+        return limit == null
+            || (nutrition.hasValue(nutrient, position) && nutrition.value(nutrient, position) <= limit);
+    }
+
+    private static int valueOrZero(NutritionIndex nutrition, NutritionIndex.Nutrient nutrient, int position) {
+        return nutrition.hasValue(nutrient, position) ? nutrition.value(nutrient, position) : 0;
+    }
+
+    /**
+     * Candidate items as parallel primitive columns, in search order
+     */
+    private static final class Candidates {
+
+        final int size;
+        final int[] positions;
+        final int[] calories;
+        final int[] protein;
+        final int[] carbs;
+        final int[] fat;
+
+        Candidates(int size) {
+            this.size = size;
+            this.positions = new int[size];
+            this.calories = new int[size];
+            this.protein = new int[size];
+            this.carbs = new int[size];
+            this.fat = new int[size];
+        }
+    }
+
+    private record Plan(int[] items, int calories, int protein, int carbs, int fat) {}
+
+    /**
+     * One branch-and-bound run; not thread-safe
+     */
+    private static final class Search {
+
+        static final Comparator<Plan> BEST_FIRST = Comparator
+            .comparingInt((Plan p) -> -p.protein())
+            .thenComparingInt(Plan::calories);
+
+        final Candidates c;
+        final Targets targets;
+        final int limit;
+        final long deadline;
+        final int bucketCalories;
+        final int buckets;
+        final int[] cost;
+        // bound[(i * (maxItems + 1) + k) * (buckets + 1) + b]: most protein from items i.. using
+        // at most k items whose bucketed costs sum to at most b
+        final int[] bound;
+        final int[] chosen;
+        final PriorityQueue<Plan> best;
+
+        long nodes;
+        boolean timedOut;
+
+        Search(Candidates candidates, Targets targets, int limit, long deadline) {
+            this.c = candidates;
+            this.targets = targets;
+            this.limit = limit;
+            this.deadline = deadline;
+            this.bucketCalories = (int) Math.max(MIN_BUCKET_CALORIES,
+                ((long) targets.maxCalories() + MAX_BUCKETS - 1) / MAX_BUCKETS);
+            this.buckets = targets.maxCalories() / bucketCalories;
+            this.cost = new int[c.size];
+            // Costs round down, so the table never underestimates what still fits
+            for (int i = 0; i < c.size; i++) {
+                cost[i] = c.calories[i] / bucketCalories;
+            }
+            this.bound = buildBound();
+            this.chosen = new int[targets.maxItems()];
+            this.best = new PriorityQueue<>(BEST_FIRST.reversed());
+        }
+
+        private int[] buildBound() {
+            int k = targets.maxItems();
+            int stride = buckets + 1;
+            int[] table = new int[(c.size + 1) * (k + 1) * stride];
+            for (int i = c.size - 1; i >= 0; i--) {
+                int row = i * (k + 1);
+                int next = (i + 1) * (k + 1);
+                for (int items = 0; items <= k; items++) {
+                    int out = (row + items) * stride;
+                    int skip = (next + items) * stride;
+                    int take = (next + items - 1) * stride;
+                    for (int b = 0; b <= buckets; b++) {
+                        int value = table[skip + b];
+                        if (items > 0 && cost[i] <= b) {
+                            value = Math.max(value, table[take + b - cost[i]] + c.protein[i]);
+                        }
+                        table[out + b] = value;
+                    }
+                }
+            }
+            return table;
+        }
+
+        private int bound(int from, int itemsLeft, int caloriesLeft) {
+            int b = Math.min(buckets, caloriesLeft / bucketCalories);
+            return bound[(from * (targets.maxItems() + 1) + itemsLeft) * (buckets + 1) + b];
+        }
+
+        void run() {
+            search(0, 0, 0, 0, 0, 0);
+        }
+
+        private void search(int from, int depth, int calories, int protein, int carbs, int fat) {
+            int itemsLeft = targets.maxItems() - depth;
+            for (int i = from; i < c.size; i++) {
+                if ((++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+                    timedOut = true;
+                }
+                if (timedOut) {
+                    return;
+                }
+                // Nothing from here on can beat the worst kept plan
+                if (best.size() == limit
+                        && protein + bound(i, itemsLeft, targets.maxCalories() - calories) < best.peek().protein()) {
+                    return;
+                }
+
+                int nextCalories = calories + c.calories[i];
+                int nextCarbs = carbs + c.carbs[i];
+                int nextFat = fat + c.fat[i];
+                if (nextCalories > targets.maxCalories()
+                        || (targets.maxCarbs() != null && nextCarbs > targets.maxCarbs())
+                        || (targets.maxFat() != null && nextFat > targets.maxFat())) {
+                    continue;
+                }
+                int nextProtein = protein + c.protein[i];
+                chosen[depth] = i;
+
+                if (nextProtein >= targets.minProtein()) {
+                    offer(depth + 1, nextCalories, nextProtein, nextCarbs, nextFat);
+                }
+                if (itemsLeft > 1) {
+                    search(i + 1, depth + 1, nextCalories, nextProtein, nextCarbs, nextFat);
+                }
+            }
+        }
+
+        private void offer(int count, int calories, int protein, int carbs, int fat) {
+            if (best.size() == limit) {
+                Plan worst = best.peek();
+                if (protein < worst.protein() || (protein == worst.protein() && calories >= worst.calories())) {
+                    return;
+                }
+                best.poll();
+            }
+            best.add(new Plan(Arrays.copyOf(chosen, count), calories, protein, carbs, fat));
+        }
+    }
+}
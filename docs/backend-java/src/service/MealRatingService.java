@@ -0,0 +1,87 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MealRatingDTO;
+import com.umassdining.dto.MenuItemRatingStats;
+import com.umassdining.exception.ResourceNotFoundException;
+import com.umassdining.model.MealRating;
+import com.umassdining.model.MenuItem;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class MealRatingService {
+
+    private final MealRatingRepository mealRatingRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final UserTasteProfileCache userTasteProfileCache;
+    private final RecommendationStore recommendationStore;
+    private final ItemSimilarityEngine itemSimilarityEngine;
+    private final RatingCounters ratingCounters;
+    private final PopularRecommendationCache popularRecommendationCache;
+
+    /**
+     * Create or update the user's rating for a menu item
+     */
+    @Transactional
+    public MealRatingDTO rateMenuItem(String userId, MealRatingDTO dto) {
+        MenuItem item = menuItemRepository.findById(dto.getMenuItemId())
+            .orElseThrow(() -> new ResourceNotFoundException("MenuItem", "id", dto.getMenuItemId()));
+
+        MealRating rating = mealRatingRepository.findByUserIdAndMenuItemId(userId, item.getId())
+            .orElse(null);
+        Integer previousRating = rating != null ? rating.getRating() : null;
+
+        if (rating == null) {
+            rating = new MealRating();
+            rating.setUserId(userId);
+            rating.setMenuItemId(item.getId());
+        }
+        rating.setRating(dto.getRating());
+
+        userTasteProfileCache.beginWrite(userId);
+        MealRating saved = mealRatingRepository.save(rating);
+        // In-memory state only follows a committed rating, so a rollback leaves nothing to undo
+        TransactionHooks.afterCommit(() -> {
+            ratingCounters.record(saved.getMenuItemId(), saved.getRating(), previousRating);
+            popularRecommendationCache.onRatingWritten();
+            userTasteProfileCache.recordRating(userId, item.getCategory(), saved.getRating(), previousRating);
+            recommendationStore.invalidate(userId);
+            itemSimilarityEngine.recordRating(userId, item.getName(), saved.getRating());
+        });
+        return toDTO(saved);
+    }
+
+    /**
+     * Get rating stats for a menu item from the in-memory counters
+     */
+    public MenuItemRatingStats getItemStats(String menuItemId) {
+        return ratingCounters.getStats(menuItemId);
+    }
+
+    /**
+     * Get all ratings written by a user
+     */
+    public List<MealRatingDTO> getUserRatings(String userId) {
+        return mealRatingRepository.findByUserId(userId)
+            .stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    private MealRatingDTO toDTO(MealRating rating) {
+        return MealRatingDTO.builder()
+            .id(rating.getId())
+            .menuItemId(rating.getMenuItemId())
+            .rating(rating.getRating())
+            .createdAt(rating.getCreatedAt())
+            .build();
+    }
+}
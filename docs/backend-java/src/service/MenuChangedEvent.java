@@ -0,0 +1,24 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemRow;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Committed changes to one date's menu: rows inserted or updated, ids deleted, and
+ * ids marked removed, which leave the menu but keep their rows for their ratings.
+ * Published after commit so listeners can patch what they hold instead of reloading.
+ */
+public record MenuChangedEvent(LocalDate date, List<MenuItemRow> upserted, Set<String> deletedIds,
+                               Set<String> removedIds) {
+
+    public MenuChangedEvent(LocalDate date, List<MenuItemRow> upserted, Set<String> deletedIds) {
+        this(date, upserted, deletedIds, Set.of());
+    }
+
+    public boolean isEmpty() {
+        return upserted.isEmpty() && deletedIds.isEmpty() && removedIds.isEmpty();
+    }
+}
@@ -0,0 +1,231 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.model.MenuItem;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.repository.MenuItemBulkWriter;
+import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reconciles scraped menu items with stored ones instead of re-inserting them.
+ *
+ * Items are matched on a natural key of hall, date, meal and normalized name,
+ * so a dish keeps its id, and with it its ratings, for as long as the page
+ * keeps listing it. Only the inserts, updates and deletes between the two
+ * sides are written, in one transaction, and a {@link MenuChangedEvent}
+ * carrying just those rows is published once it commits. Rated items the
+ * page drops are marked removed instead of deleted, and come back under the
+ * same id if the page lists them again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MenuDiffEngine {
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuItemBulkWriter menuItemBulkWriter;
+    private final MealRatingRepository mealRatingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Changes that turn the stored items into the scraped ones; deletes are the listed items the page dropped
+     */
+    public record MenuDiff(List<MenuItem> inserts, List<MenuItem> updates, List<MenuItem> deletes) {
+
+        public boolean isEmpty() {
+            return inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+        }
+    }
+
+    /**
+     * Replace a date's menu for the given halls with the scraped items, writing only what differs
+     */
+    @Transactional
+    public MenuDiff apply(LocalDate date, Collection<String> hallIds, List<MenuItem> scraped) {
+        if (hallIds.isEmpty()) {
+            return new MenuDiff(List.of(), List.of(), List.of());
+        }
+        List<MenuItem> stored = menuItemRepository.findByMenuDateAndDiningHallIdIn(date, hallIds);
+        MenuDiff diff = diff(stored, scraped);
+        if (diff.isEmpty()) {
+            return diff;
+        }
+
+        // Rated items are only marked removed, so their ratings keep a dish to point at
+        Set<String> rated = diff.deletes().isEmpty() ? Set.of()
+            : mealRatingRepository.findRatedMenuItemIds(diff.deletes().stream().map(MenuItem::getId).toList());
+        List<MenuItem> deletes = new ArrayList<>();
+        Set<String> deletedIds = new HashSet<>();
+        Set<String> removedIds = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (MenuItem item : diff.deletes()) {
+            if (rated.contains(item.getId())) {
+                item.setRemovedAt(now);
+                removedIds.add(item.getId());
+            } else {
+                deletes.add(item);
+                deletedIds.add(item.getId());
+            }
+        }
+
+        // Deleted one by one so their menu_item_tags rows go with them
+        menuItemRepository.deleteAll(deletes);
+        // Updates and removals were made on managed entities; flush them with the deletes before the bulk insert
+        menuItemRepository.flush();
+        menuItemBulkWriter.insertAll(diff.inserts());
+
+        List<MenuItemRow> upserted = new ArrayList<>(diff.inserts().size() + diff.updates().size());
+        diff.inserts().forEach(item -> upserted.add(MenuItemRow.of(item)));
+        diff.updates().forEach(item -> upserted.add(MenuItemRow.of(item)));
+        MenuChangedEvent event = new MenuChangedEvent(date, upserted, deletedIds, removedIds);
+        TransactionHooks.afterCommit(() -> eventPublisher.publishEvent(event));
+
+        log.info("Menu diff for {}: {} inserted, {} updated, {} deleted, {} rated items removed",
+            date, diff.inserts().size(), diff.updates().size(), deletedIds.size(), removedIds.size());
+        return diff;
+    }
+
+    /**
+     * Match scraped to stored items by natural key. Matched stored items whose
+     * fields differ, or that were marked removed, get the scraped values copied
+     * on and are returned as updates; unmatched stored items already marked
+     * removed are left alone. The first of any duplicate keys wins on either side.
+     */
+    public static MenuDiff diff(Collection<MenuItem> stored, Collection<MenuItem> scraped) {
+        Map<String, MenuItem> storedByKey = new HashMap<>();
+        List<MenuItem> deletes = new ArrayList<>();
+        for (MenuItem item : stored) {
+            if (storedByKey.putIfAbsent(naturalKey(item), item) != null && item.getRemovedAt() == null) {
+                deletes.add(item);
+            }
+        }
+
+        Map<String, MenuItem> scrapedByKey = new LinkedHashMap<>();
+        for (MenuItem item : scraped) {
+            scrapedByKey.putIfAbsent(naturalKey(item), item);
+        }
+
+        List<MenuItem> inserts = new ArrayList<>();
+        List<MenuItem> updates = new ArrayList<>();
+        for (Map.Entry<String, MenuItem> entry : scrapedByKey.entrySet()) {
+            MenuItem current = storedByKey.remove(entry.getKey());
+            if (current == null) {
+                inserts.add(entry.getValue());
+            } else if (copyChanges(entry.getValue(), current)) {
+                updates.add(current);
+            }
+        }
+        for (MenuItem item : storedByKey.values()) {
+            if (item.getRemovedAt() == null) {
+                deletes.add(item);
+            }
+        }
+        return new MenuDiff(inserts, updates, deletes);
+    }
+
+    /**
+     * Key identifying the same dish across scrapes
+     */
+    public static String naturalKey(MenuItem item) {
+        return naturalKey(item.getDiningHallId(), item.getMenuDate(), item.getMealType(), item.getName());
+    }
+
+    public static String naturalKey(String diningHallId, LocalDate date, MealType mealType, String name) {
+        return diningHallId + "|" + date + "|" + mealType + "|" + normalizeName(name);
+    }
+
+    /**
+     * Lowercase and reduce every run of non-alphanumerics to one space, so
+     * "Mac & Cheese " and "mac  cheese" agree
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean gap = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (gap && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                gap = false;
+            } else {
+                gap = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    // Copy scraped values the page controls onto the stored item; true if any changed.
+    // Description and nutrition only count when the scrape produced them: the
+    // scraper leaves them null, and that must not wipe what was stored
+    private static boolean copyChanges(MenuItem scraped, MenuItem stored) {
+        boolean changed = false;
+        if (stored.getRemovedAt() != null) {
+            stored.setRemovedAt(null);
+            changed = true;
+        }
+        if (!Objects.equals(scraped.getName(), stored.getName())) {
+            stored.setName(scraped.getName());
+            changed = true;
+        }
+        if (!Objects.equals(scraped.getCategory(), stored.getCategory())) {
+            stored.setCategory(scraped.getCategory());
+            changed = true;
+        }
+        if (differs(scraped.getDescription(), stored.getDescription())) {
+            stored.setDescription(scraped.getDescription());
+            changed = true;
+        }
+        if (differs(scraped.getCalories(), stored.getCalories())) {
+            stored.setCalories(scraped.getCalories());
+            changed = true;
+        }
+        if (differs(scraped.getProtein(), stored.getProtein())) {
+            stored.setProtein(scraped.getProtein());
+            changed = true;
+        }
+        if (differs(scraped.getCarbs(), stored.getCarbs())) {
+            stored.setCarbs(scraped.getCarbs());
+            changed = true;
+        }
+        if (differs(scraped.getFat(), stored.getFat())) {
+            stored.setFat(scraped.getFat());
+            changed = true;
+        }
+        List<String> scrapedTags = scraped.getTags() != null ? scraped.getTags() : List.of();
+        List<String> storedTags = stored.getTags() != null ? stored.getTags() : List.of();
+        if (!new HashSet<>(scrapedTags).equals(new HashSet<>(storedTags))) {
+            stored.setTags(new ArrayList<>(scrapedTags));
+            changed = true;
+        }
+        return changed;
+    }
+
+    // A scraped value that is present and not what is stored
+    private static boolean differs(Object scraped, Object stored) {
+        return scraped != null && !scraped.equals(stored);
+    }
+}
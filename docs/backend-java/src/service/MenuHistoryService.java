@@ -0,0 +1,152 @@
+package com.umassdining.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.umassdining.dto.MenuHistoryPageDTO;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.exception.BadRequestException;
+import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.util.FieldSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Menu items over a date range, read straight from the database rather than
+ * the per-date snapshots.
+ *
+ * Pages are keyset-paginated on (menu_date, id), so every page is one index
+ * range scan no matter how deep the client has paged. The NDJSON mode reads
+ * the same order through a database cursor and writes each row as it
+ * arrives; rows are DTO projections, never managed entities, so nothing
+ * accumulates in the persistence context and memory stays flat. With a
+ * sparse fieldset only the requested columns are selected.
+ */
+@Service
+@RequiredArgsConstructor
+public class MenuHistoryService {
+
+    private static final int DEFAULT_LIMIT = 200;
+    private static final int MAX_LIMIT = 1000;
+    private static final int FLUSH_EVERY = 500;
+
+    private final MenuItemRepository menuItemRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * One page of items in (date, id) order, starting after the cursor if one is given;
+     * fields may be null for every field
+     */
+    public MenuHistoryPageDTO getHistoryPage(LocalDate from, LocalDate to, String diningHallId,
+                                             MealType mealType, String cursor, Integer limit,
+                                             FieldSet fields) {
+        checkRange(from, to);
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        // Without a cursor, start just before the range; every id sorts after ""
+        LocalDate afterDate = from.minusDays(1);
+        String afterId = "";
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterDate = LocalDate.parse(position[0]);
+            afterId = position[1];
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        List<MenuItemRow> rows = fields == null
+            ? menuItemRepository.findRowPage(from, to, diningHallId, mealType,
+                afterDate, afterId, PageRequest.of(0, size + 1))
+            : menuItemRepository.findSparseRowPage(fields, from, to, diningHallId, mealType,
+                afterDate, afterId, size + 1);
+        boolean more = rows.size() > size;
+        List<MenuItemDTO> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            items.add(rows.get(i).toDTO());
+        }
+
+        String nextCursor = null;
+        if (more) {
+            MenuItemRow last = rows.get(size - 1);
+            nextCursor = encodeCursor(last.getMenuDate(), last.getId());
+        }
+        return MenuHistoryPageDTO.builder()
+            .items(items)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    /**
+     * Write every item in the range as newline-delimited JSON, flushing as rows arrive.
+     * The cursor stays open for the whole write, hence the read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public void writeHistory(LocalDate from, LocalDate to, String diningHallId, MealType mealType,
+                             FieldSet fields, OutputStream out) throws IOException {
+        checkRange(from, to);
+        ObjectWriter writer = objectMapper.writerFor(MenuItemDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (fields != null) {
+            writer = writer.with(fields.getFilters());
+        }
+        try (Stream<MenuItemRow> rows = fields == null
+                 ? menuItemRepository.streamRows(from, to, diningHallId, mealType)
+                 : menuItemRepository.streamSparseRows(fields, from, to, diningHallId, mealType);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                 .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            int written = 0;
+            Iterator<MenuItemRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next().toDTO());
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+    }
+
+    private static String encodeCursor(LocalDate date, String id) {
+        String position = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            LocalDate.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
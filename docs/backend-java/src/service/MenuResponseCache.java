@@ -0,0 +1,156 @@
+package com.umassdining.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.util.FieldSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized menu responses per (date, hall, meal type), kept as final bytes
+ * in the negotiated format (JSON, CBOR or Smile) plus a gzip variant.
+ *
+ * Entries are tied to the menu version they were built from and rebuilt the
+ * first time a newer version is requested, so a hit costs one map lookup and
+ * no serialization; a newer version also drops every older body of its date.
+ * Sparse fieldset bodies are cached too, keyed additionally on the
+ * {@link FieldSet}, in a second, smaller cache so that fields= combinations
+ * cannot evict the full bodies. Both caches are bounded (Caffeine, size-based
+ * eviction), and callers only cache selections worth a slot.
+ */
+@Component
+@Slf4j
+public class MenuResponseCache {
+
+    private final ResponseFormats responseFormats;
+    private final Cache<Key, Body> entries;
+    private final Cache<Key, Body> fieldsetEntries;
+
+    public MenuResponseCache(ResponseFormats responseFormats,
+                             @Value("${menu.response-cache.max-entries:512}") int maxEntries,
+                             @Value("${menu.response-cache.fieldset-max-entries:256}") int fieldsetMaxEntries) {
+        this.responseFormats = responseFormats;
+        this.entries = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        this.fieldsetEntries = Caffeine.newBuilder().maximumSize(fieldsetMaxEntries).build();
+    }
+
+    /**
+     * Cached body for a menu selection at this version, building it with the loader on a miss;
+     * fields is null for every field
+     */
+    public Body get(LocalDate date, String diningHallId, MealType mealType, FieldSet fields,
+                    ResponseFormats.Format format, long version, Supplier<List<MenuItemDTO>> loader) {
+        Cache<Key, Body> cache = fields == null ? entries : fieldsetEntries;
+        Key key = new Key(date, diningHallId, mealType, format, fields);
+        Body body = cache.getIfPresent(key);
+        if (body != null && body.version >= version) {
+            return body;
+        }
+        // A newer version makes every older body of the date unreachable; free their slots now
+        cache.asMap().entrySet().removeIf(entry ->
+            entry.getKey().date().equals(date) && entry.getValue().version < version);
+        // Built once per version, so spend the CPU on the best ratio
+        Body built = serialize(version, fields, format, loader.get(), Deflater.BEST_COMPRESSION);
+        built.getGzip();
+        // Keep whichever body is newer if two requests rebuilt at once
+        cache.asMap().merge(key, built, (current, next) -> next.version >= current.version ? next : current);
+        return built;
+    }
+
+    /**
+     * Serialize a selection without caching it: dates outside the snapshot window or halls
+     * the menu does not have; fields may be null for every field, and the gzip variant is
+     * only built if asked for
+     */
+    public Body render(List<MenuItemDTO> items, FieldSet fields, ResponseFormats.Format format, long version) {
+        return serialize(version, fields, format, items, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Drop bodies for dates before the cutoff
+     */
+    public void evictBefore(LocalDate cutoffDate) {
+        entries.asMap().keySet().removeIf(key -> key.date().isBefore(cutoffDate));
+        fieldsetEntries.asMap().keySet().removeIf(key -> key.date().isBefore(cutoffDate));
+    }
+
+    private Body serialize(long version, FieldSet fields, ResponseFormats.Format format,
+                           List<MenuItemDTO> items, int gzipLevel) {
+        ObjectMapper mapper = responseFormats.mapper(format);
+        try {
+            byte[] bytes = fields == null ? mapper.writeValueAsBytes(items)
+                : mapper.writer(fields.getFilters()).writeValueAsBytes(items);
+            return new Body(version, bytes, gzipLevel);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Key(LocalDate date, String diningHallId, MealType mealType, ResponseFormats.Format format,
+                       FieldSet fields) {}
+
+    /**
+     * One serialized response; the arrays are shared and must not be modified
+     */
+    public static final class Body {
+
+        private final long version;
+        private final byte[] bytes;
+        private final int gzipLevel;
+        private volatile byte[] gzip;
+
+        private Body(long version, byte[] bytes, int gzipLevel) {
+            this.version = version;
+            this.bytes = bytes;
+            this.gzipLevel = gzipLevel;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Gzip variant, compressed on first use; a race at worst compresses twice
+         */
+        public byte[] getGzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = gzip(bytes, gzipLevel);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+}
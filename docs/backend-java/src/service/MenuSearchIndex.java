@@ -0,0 +1,460 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.util.SearchTokenizer;
+import com.umassdining.util.TopKSelector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory inverted index over menu item names, descriptions, categories
+ * and tags, covering a configurable window of menu history.
+ *
+ * The index is split into one immutable segment per date, built from that
+ * date's {@link MenuSnapshot} and swapped in whenever the snapshot is
+ * refreshed, so saving a menu only re-indexes the dates it touched. Queries
+ * are tokenized and stemmed like the documents; a term missing from the
+ * vocabulary is replaced by vocabulary terms within a small edit distance,
+ * found through a trigram index, and the last query term also matches as a
+ * prefix. Every query term must match; items are ranked by BM25 with name
+ * matches weighted highest, newer dates winning ties.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float TAG_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float FUZZY_FACTOR = 0.6f;
+    private static final float PREFIX_FACTOR = 0.8f;
+
+    // Hits are packed as segment << SEGMENT_SHIFT | position for the top-k heap
+    private static final int SEGMENT_SHIFT = 17;
+    private static final int MAX_SEGMENT_ITEMS = 1 << SEGMENT_SHIFT;
+
+    private final MenuItemRepository menuItemRepository;
+
+    @Value("${menu.search.days-back:365}")
+    private int daysBack;
+
+    private final NavigableMap<LocalDate, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Vocabulary vocabulary = new Vocabulary();
+
+    // Seeded from the clock so it keeps increasing across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Index the configured window of history plus any future menus in one query
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHistory() {
+        long start = System.currentTimeMillis();
+        List<MenuItemRow> rows = menuItemRepository.findRowsByMenuDateFrom(LocalDate.now().minusDays(daysBack));
+        int from = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !rows.get(i).getMenuDate().equals(rows.get(from).getMenuDate())) {
+                LocalDate date = rows.get(from).getMenuDate();
+                // Version 0 loses to any snapshot a scrape indexed in the meantime
+                index(MenuSnapshot.build(date, 0, rows.subList(from, i)));
+                from = i;
+            }
+        }
+        log.info("Indexed {} menu items over {} dates for search in {} ms",
+            rows.size(), segments.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replace a date's segment with one built from this snapshot, unless a newer one is indexed
+     */
+    public synchronized void index(MenuSnapshot snapshot) {
+        Segment current = segments.get(snapshot.getDate());
+        if (current != null && current.snapshot.getVersion() > snapshot.getVersion()) {
+            return;
+        }
+        if (snapshot.getDate().isBefore(LocalDate.now().minusDays(daysBack))) {
+            return;
+        }
+        Segment segment = Segment.build(snapshot);
+        Segment replaced = segments.put(snapshot.getDate(), segment);
+        // Add before removing, so terms the two segments share never drop out
+        vocabulary.add(segment.postings.keySet());
+        if (replaced != null) {
+            vocabulary.remove(replaced.postings.keySet());
+        }
+        dropBefore(LocalDate.now().minusDays(daysBack));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Drop segments for dates before the cutoff
+     */
+    public synchronized void evictBefore(LocalDate cutoffDate) {
+        dropBefore(cutoffDate);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Number of distinct terms in the indexed segments
+     */
+    int vocabularySize() {
+        return vocabulary.terms.size();
+    }
+
+    private void dropBefore(LocalDate cutoffDate) {
+        Map<LocalDate, Segment> dropped = segments.headMap(cutoffDate);
+        for (Segment segment : dropped.values()) {
+            vocabulary.remove(segment.postings.keySet());
+        }
+        dropped.clear();
+    }
+
+    /**
+     * Changes whenever any segment is replaced or dropped
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Best matches for a query within a date range, optionally limited to one hall and meal type
+     */
+    public List<MenuItemDTO> search(String query, LocalDate from, LocalDate to,
+                                    String diningHallId, MealType mealType, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (tokens.isEmpty() || from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+
+        List<Expansion> expansions = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            Expansion expansion = vocabulary.expand(tokens.get(i), i == tokens.size() - 1);
+            if (expansion.terms.isEmpty()) {
+                // Every term has to match, so an unknown term means no results
+                return Collections.emptyList();
+            }
+            expansions.add(expansion);
+        }
+
+        TopKSelector topK = new TopKSelector(Math.max(1, Math.min(limit, MAX_LIMIT)));
+        List<Segment> visited = new ArrayList<>();
+        for (Segment segment : segments.subMap(from, true, to, true).descendingMap().values()) {
+            Hits hits = null;
+            for (Expansion expansion : expansions) {
+                Hits termHits = segment.match(expansion);
+                hits = hits == null ? termHits : hits.intersect(termHits);
+                if (hits.size == 0) {
+                    break;
+                }
+            }
+            if (hits == null || hits.size == 0) {
+                continue;
+            }
+
+            int segmentIndex = visited.size();
+            visited.add(segment);
+            MenuSnapshot snapshot = segment.snapshot;
+            for (int i = 0; i < hits.size; i++) {
+                MenuSnapshot.Item item = snapshot.getItem(hits.positions[i]);
+                if (diningHallId != null && !diningHallId.equals(item.getDiningHallId())) continue;
+                if (mealType != null && mealType != item.getMealType()) continue;
+                topK.offer(segmentIndex << SEGMENT_SHIFT | hits.positions[i], hits.scores[i]);
+            }
+        }
+
+        int[] refs = new int[topK.size()];
+        double[] scores = new double[refs.length];
+        int count = topK.drainDescending(refs, scores);
+        List<MenuItemDTO> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Segment segment = visited.get(refs[i] >>> SEGMENT_SHIFT);
+            results.add(segment.snapshot.getItem(refs[i] & (MAX_SEGMENT_ITEMS - 1)).getDTO());
+        }
+        return results;
+    }
+
+    /**
+     * Vocabulary terms a query term stands for, with a score factor each
+     */
+    private record Expansion(List<String> terms, float[] factors) {}
+
+    /**
+     * Matching positions in a segment, ascending, with their scores
+     */
+    private static final class Hits {
+
+        static final Hits NONE = new Hits(new int[0], new float[0], 0);
+
+        final int[] positions;
+        final float[] scores;
+        final int size;
+
+        Hits(int[] positions, float[] scores, int size) {
+            this.positions = positions;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        /**
+         * Positions in both, scores summed
+         */
+        Hits intersect(Hits other) {
+            int[] positionsOut = new int[Math.min(size, other.size)];
+            float[] scoresOut = new float[positionsOut.length];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.size) {
+                if (positions[i] < other.positions[j]) i++;
+                else if (positions[i] > other.positions[j]) j++;
+                else {
+                    positionsOut[n] = positions[i];
+                    scoresOut[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Hits(positionsOut, scoresOut, n);
+        }
+
+        /**
+         * Positions in either, keeping the better score
+         */
+        Hits union(Hits other) {
+            int[] positionsOut = new int[size + other.size];
+            float[] scoresOut = new float[positionsOut.length];
+            int i = 0, j = 0, n = 0;
+            while (i < size || j < other.size) {
+                if (j >= other.size || (i < size && positions[i] < other.positions[j])) {
+                    positionsOut[n] = positions[i];
+                    scoresOut[n++] = scores[i++];
+                } else if (i >= size || positions[i] > other.positions[j]) {
+                    positionsOut[n] = other.positions[j];
+                    scoresOut[n++] = other.scores[j++];
+                } else {
+                    positionsOut[n] = positions[i];
+                    scoresOut[n++] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return new Hits(positionsOut, scoresOut, n);
+        }
+    }
+
+    /**
+     * Postings for one term in one segment: item positions, ascending, and weighted term frequencies
+     */
+    private static final class Postings {
+
+        int[] positions = new int[4];
+        float[] frequencies = new float[4];
+        int size;
+
+        void add(int position, float frequency) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            positions[size] = position;
+            frequencies[size++] = frequency;
+        }
+    }
+
+    /**
+     * Immutable index of one date's snapshot
+     */
+    private static final class Segment {
+
+        final MenuSnapshot snapshot;
+        final Map<String, Postings> postings;
+        final float[] lengths;
+        final float averageLength;
+
+        private Segment(MenuSnapshot snapshot, Map<String, Postings> postings, float[] lengths, float averageLength) {
+            this.snapshot = snapshot;
+            this.postings = postings;
+            this.lengths = lengths;
+            this.averageLength = averageLength;
+        }
+
+        static Segment build(MenuSnapshot snapshot) {
+            if (snapshot.size() > MAX_SEGMENT_ITEMS) {
+                throw new IllegalArgumentException("Too many items to index for " + snapshot.getDate());
+            }
+            Map<String, Postings> postings = new HashMap<>();
+            float[] lengths = new float[snapshot.size()];
+            float totalLength = 0;
+            Map<String, Float> frequencies = new HashMap<>();
+            for (int position = 0; position < snapshot.size(); position++) {
+                MenuSnapshot.Item item = snapshot.getItem(position);
+                frequencies.clear();
+                float length = addTerms(frequencies, item.getName(), NAME_WEIGHT)
+                    + addTerms(frequencies, item.getCategory(), CATEGORY_WEIGHT)
+                    + addTerms(frequencies, item.getDescription(), DESCRIPTION_WEIGHT);
+                for (String tag : item.getTags()) {
+                    length += addTerms(frequencies, tag, TAG_WEIGHT);
+                }
+                for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(position, entry.getValue());
+                }
+                lengths[position] = length;
+                totalLength += length;
+            }
+            float averageLength = lengths.length > 0 ? totalLength / lengths.length : 1f;
+            return new Segment(snapshot, postings, lengths, Math.max(averageLength, 1f));
+        }
+
+        private static float addTerms(Map<String, Float> frequencies, String text, float weight) {
+            List<String> terms = SearchTokenizer.tokenize(text);
+            for (String term : terms) {
+                frequencies.merge(term, weight, Float::sum);
+            }
+            return terms.size() * weight;
+        }
+
+        /**
+         * BM25-scored hits for any term of an expansion
+         */
+        Hits match(Expansion expansion) {
+            Hits hits = Hits.NONE;
+            for (int t = 0; t < expansion.terms.size(); t++) {
+                Postings termPostings = postings.get(expansion.terms.get(t));
+                if (termPostings == null) {
+                    continue;
+                }
+                Hits termHits = score(termPostings, expansion.factors[t]);
+                hits = hits.size == 0 ? termHits : hits.union(termHits);
+            }
+            return hits;
+        }
+
+        private Hits score(Postings termPostings, float factor) {
+            int df = termPostings.size;
+            float idf = (float) Math.log(1 + (lengths.length - df + 0.5) / (df + 0.5));
+            float[] scores = new float[df];
+            for (int i = 0; i < df; i++) {
+                float tf = termPostings.frequencies[i];
+                float norm = K1 * (1 - B + B * lengths[termPostings.positions[i]] / averageLength);
+                scores[i] = factor * idf * tf * (K1 + 1) / (tf + norm);
+            }
+            return new Hits(termPostings.positions, scores, df);
+        }
+    }
+
+    /**
+     * Sorted set of every term in the live segments, with a trigram index for
+     * typo lookups. Each term counts the segments that hold it, so indexing or
+     * evicting a segment only touches the terms entering or leaving the
+     * window. Written under the index lock and read without it.
+     */
+    private static final class Vocabulary {
+
+        final NavigableSet<String> terms = new ConcurrentSkipListSet<>();
+        final Map<String, Set<String>> termsByTrigram = new ConcurrentHashMap<>();
+        private final Map<String, Integer> segmentCounts = new HashMap<>();
+
+        void add(Set<String> added) {
+            for (String term : added) {
+                if (segmentCounts.merge(term, 1, Integer::sum) == 1) {
+                    for (String gram : SearchTokenizer.trigrams(term)) {
+                        termsByTrigram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(term);
+                    }
+                    terms.add(term);
+                }
+            }
+        }
+
+        void remove(Set<String> removed) {
+            for (String term : removed) {
+                if (segmentCounts.computeIfPresent(term, (t, count) -> count == 1 ? null : count - 1) == null) {
+                    terms.remove(term);
+                    for (String gram : SearchTokenizer.trigrams(term)) {
+                        termsByTrigram.computeIfPresent(gram, (g, grams) -> {
+                            grams.remove(term);
+                            return grams.isEmpty() ? null : grams;
+                        });
+                    }
+                }
+            }
+        }
+
+        Expansion expand(String token, boolean prefix) {
+            List<String> matched = new ArrayList<>();
+            List<Float> factors = new ArrayList<>();
+            boolean exact = terms.contains(token);
+            if (exact) {
+                matched.add(token);
+                factors.add(1f);
+            } else {
+                addFuzzy(token, matched, factors);
+            }
+            if (prefix && token.length() >= 3) {
+                for (String term : terms.tailSet(token, false)) {
+                    if (!term.startsWith(token)) {
+                        break;
+                    }
+                    matched.add(term);
+                    factors.add(PREFIX_FACTOR);
+                }
+            }
+            float[] factorArray = new float[factors.size()];
+            for (int i = 0; i < factorArray.length; i++) {
+                factorArray[i] = factors.get(i);
+            }
+            return new Expansion(matched, factorArray);
+        }
+
+        private void addFuzzy(String token, List<String> matched, List<Float> factors) {
+            int maxEdits = token.length() <= 3 ? 0 : token.length() <= 6 ? 1 : 2;
+            if (maxEdits == 0) {
+                return;
+            }
+            // A term within d edits still shares all but at most 3d of the token's trigrams
+            List<String> grams = SearchTokenizer.trigrams(token);
+            int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : new HashSet<>(grams)) {
+                Set<String> gramTerms = termsByTrigram.get(gram);
+                if (gramTerms == null) continue;
+                for (String term : gramTerms) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+                if (entry.getValue() < minShared) continue;
+                String term = entry.getKey();
+                int distance = SearchTokenizer.editDistance(token, term, maxEdits);
+                if (distance <= maxEdits) {
+                    matched.add(term);
+                    factors.add(FUZZY_FACTOR / distance);
+                }
+            }
+        }
+    }
+}
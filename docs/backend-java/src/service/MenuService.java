@@ -2,14 +2,23 @@ package com.umassdining.service;
 
 import com.umassdining.model.MenuItem;
 import com.umassdining.enums.MealType;
+import com.umassdining.repository.MenuItemBulkWriter;
 import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.exception.BadRequestException;
+import com.umassdining.util.Bitmap;
+import com.umassdining.util.TagExpression;
+import com.umassdining.util.TransactionHooks;
 import com.umassdining.dto.MenuItemDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,77 +26,123 @@ import java.util.stream.Collectors;
 public class MenuService {
 
     private final MenuItemRepository menuItemRepository;
+    private final MenuItemBulkWriter menuItemBulkWriter;
+    private final MenuSnapshotStore menuSnapshotStore;
+    private final MenuResponseCache menuResponseCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final RatingCounters ratingCounters;
 
     /**
      * Get all menu items for today
      */
     public List<MenuItemDTO> getTodaysMenu() {
-        return menuItemRepository.findByMenuDate(LocalDate.now())
-            .stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        MenuSnapshot snapshot = menuSnapshotStore.get(LocalDate.now());
+        return snapshot.toDTOs(snapshot.positions(null, null));
     }
 
     /**
      * Get menu items with filters
      */
     public List<MenuItemDTO> getMenuItems(LocalDate date, String diningHallId, MealType mealType) {
-        List<MenuItem> items;
-
-        if (diningHallId != null && mealType != null) {
-            items = menuItemRepository.findByMenuDateAndDiningHallIdAndMealType(date, diningHallId, mealType);
-        } else if (diningHallId != null) {
-            items = menuItemRepository.findByMenuDateAndDiningHallId(date, diningHallId);
-        } else if (mealType != null) {
-            items = menuItemRepository.findByMenuDateAndMealType(date, mealType);
-        } else {
-            items = menuItemRepository.findByMenuDate(date);
-        }
+        MenuSnapshot snapshot = menuSnapshotStore.get(date);
+        return snapshot.toDTOs(snapshot.positions(diningHallId, mealType));
+    }
 
-        return items.stream().map(this::toDTO).collect(Collectors.toList());
+    /**
+     * Full-text search over name, description, category and tags, ranked by relevance
+     */
+    public List<MenuItemDTO> searchMenu(String query, LocalDate from, LocalDate to,
+                                        String diningHallId, MealType mealType, int limit) {
+        return menuSearchIndex.search(query, from, to, diningHallId, mealType, limit);
     }
 
     /**
-     * Search menu items by name
+     * Get a date's menu items matching all given tag filters: any of the included
+     * tags, none of the excluded ones, and the boolean expression
      */
-    public List<MenuItemDTO> searchMenu(String query) {
-        return menuItemRepository.searchByName(LocalDate.now(), query)
-            .stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+    public List<MenuItemDTO> getFilteredMenu(LocalDate date, String diningHallId, MealType mealType,
+                                             List<String> dietaryTags, List<String> excludeTags,
+                                             String expression) {
+        TagExpression filter = TagExpression.anyOf(dietaryTags != null ? dietaryTags : List.of());
+        TagExpression excluded = TagExpression.anyOf(excludeTags != null ? excludeTags : List.of());
+        if (excluded != null) {
+            filter = filter != null ? TagExpression.and(filter, TagExpression.not(excluded))
+                : TagExpression.not(excluded);
+        }
+        if (expression != null && !expression.isBlank()) {
+            TagExpression parsed;
+            try {
+                parsed = TagExpression.parse(expression);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+            filter = filter != null ? TagExpression.and(filter, parsed) : parsed;
+        }
+
+        MenuSnapshot snapshot = menuSnapshotStore.get(date);
+        int[] positions = snapshot.positions(diningHallId, mealType);
+        if (filter != null) {
+            // NOT is taken relative to the hall/meal selection rather than the whole day
+            Bitmap selected = diningHallId == null && mealType == null
+                ? snapshot.allItems() : Bitmap.of(positions, snapshot.size());
+            positions = filter.evaluate(snapshot::tagBitmap, selected).and(selected).toPositions();
+        }
+        return snapshot.toDTOs(positions);
     }
 
     /**
-     * Get menu items matching dietary preferences
+     * Get a date's menu items matching every nutrition condition, e.g. "calories<=600",
+     * optionally sorted by a nutrient, e.g. "protein_desc"
      */
-    public List<MenuItemDTO> getFilteredMenu(List<String> dietaryTags, List<String> excludeTags) {
-        LocalDate today = LocalDate.now();
-        List<MenuItem> items;
+    public List<MenuItemDTO> getNutritionMenu(LocalDate date, String diningHallId, MealType mealType,
+                                              List<String> conditions, String sort, int limit) {
+        List<NutritionIndex.Condition> parsed = new ArrayList<>(conditions.size());
+        NutritionIndex.Sort order;
+        try {
+            for (String condition : conditions) {
+                parsed.add(NutritionIndex.Condition.parse(condition));
+            }
+            order = sort != null && !sort.isBlank() ? NutritionIndex.Sort.parse(sort) : null;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
 
-        if (excludeTags != null && !excludeTags.isEmpty()) {
-            items = menuItemRepository.findByMenuDateExcludingTags(today, excludeTags);
-        } else if (dietaryTags != null && !dietaryTags.isEmpty()) {
-            items = menuItemRepository.findByMenuDateAndTagsIn(today, dietaryTags);
-        } else {
-            items = menuItemRepository.findByMenuDate(today);
+        MenuSnapshot snapshot = menuSnapshotStore.get(date);
+        NutritionIndex nutrition = snapshot.getNutrition();
+        Bitmap selected = diningHallId == null && mealType == null
+            ? snapshot.allItems() : Bitmap.of(snapshot.positions(diningHallId, mealType), snapshot.size());
+        for (NutritionIndex.Condition condition : parsed) {
+            selected = selected.and(nutrition.matching(condition));
         }
 
-        return items.stream().map(this::toDTO).collect(Collectors.toList());
+        int max = Math.max(0, limit);
+        int[] positions = order != null ? nutrition.sorted(order, selected, max) : selected.toPositions();
+        if (positions.length > max) {
+            positions = Arrays.copyOf(positions, max);
+        }
+        return snapshot.toDTOs(positions);
     }
 
     /**
-     * Save menu items from scraping
+     * Save menu items from scraping; new items go through the bulk writer
      */
     @Transactional
     public void saveMenuItems(List<MenuItem> items) {
-        menuItemRepository.saveAll(items);
+        Map<Boolean, List<MenuItem>> byNew = items.stream()
+            .collect(Collectors.partitioningBy(item -> item.getId() == null));
+        menuItemRepository.saveAll(byNew.get(false));
+        menuItemBulkWriter.insertAll(byNew.get(true));
+        menuSnapshotStore.refreshAfterCommit(items.stream()
+            .map(MenuItem::getMenuDate)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
     }
 
     /**
      * Check if menu exists for a date
      */
     public boolean menuExistsForDate(LocalDate date) {
-        return menuItemRepository.existsByMenuDate(date);
+        return menuItemRepository.existsByMenuDateAndRemovedAtIsNull(date);
     }
 
     /**
@@ -96,27 +151,14 @@ public class MenuService {
     @Transactional
     public void deleteOldMenus(int daysToKeep) {
         LocalDate cutoffDate = LocalDate.now().minusDays(daysToKeep);
-        menuItemRepository.deleteByMenuDateBefore(cutoffDate);
-    }
-
-    /**
-     * Convert entity to DTO
-     */
-    private MenuItemDTO toDTO(MenuItem item) {
-        return MenuItemDTO.builder()
-            .id(item.getId())
-            .name(item.getName())
-            .description(item.getDescription())
-            .diningHallId(item.getDiningHallId())
-            .diningHallName(item.getDiningHall() != null ? item.getDiningHall().getName() : null)
-            .mealType(item.getMealType().name().toLowerCase())
-            .menuDate(item.getMenuDate())
-            .category(item.getCategory())
-            .calories(item.getCalories())
-            .protein(item.getProtein())
-            .carbs(item.getCarbs())
-            .fat(item.getFat())
-            .tags(item.getTags())
-            .build();
+        List<String> deletedIds = menuItemRepository.deleteByMenuDateBefore(cutoffDate).stream()
+            .map(MenuItem::getId)
+            .toList();
+        TransactionHooks.afterCommit(() -> {
+            menuSnapshotStore.evictBefore(cutoffDate);
+            menuResponseCache.evictBefore(cutoffDate);
+            menuSearchIndex.evictBefore(cutoffDate);
+            ratingCounters.evict(deletedIds);
+        });
     }
 }
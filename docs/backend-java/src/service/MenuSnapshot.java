@@ -0,0 +1,343 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.util.Bitmap;
+import com.umassdining.util.StringDictionary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, versioned read model of one day's menu.
+ *
+ * Built once per date after a scrape or admin write and swapped in whole by
+ * {@link MenuSnapshotStore}. Hall ids, categories and tags are dictionary
+ * encoded, and every item is pre-indexed by hall, meal type, category and
+ * tag as sorted position arrays, with a bitmap per tag for boolean tag
+ * filters and a {@link NutritionIndex} for nutrition ranges, so reads never
+ * touch the database.
+ *
+ * The {@link MenuItemDTO}s handed out are shared between requests and must
+ * be treated as read-only.
+ */
+public final class MenuSnapshot {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final LocalDate date;
+    private final long version;
+    private final Item[] items;
+    private final StringDictionary halls;
+    private final StringDictionary categories;
+    private final StringDictionary tags;
+    private final int[][] byHall;
+    private final int[][] byMealType;
+    private final int[][] byCategory;
+    private final int[][] byTag;
+    private final Map<String, Bitmap> tagBitmaps;
+    private final Bitmap allItems;
+    private final NutritionIndex nutrition;
+
+    private MenuSnapshot(LocalDate date, long version, Item[] items,
+                         StringDictionary halls, StringDictionary categories, StringDictionary tags) {
+        this.date = date;
+        this.version = version;
+        this.items = items;
+        this.halls = halls;
+        this.categories = categories;
+        this.tags = tags;
+        this.byHall = new int[halls.size()][];
+        this.byMealType = new int[MealType.values().length][];
+        this.byCategory = new int[categories.size()][];
+        this.byTag = new int[tags.size()][];
+        buildIndexes();
+        // Keyed by lowercased tag, merging case variants, to match TagExpression
+        this.tagBitmaps = new HashMap<>();
+        for (int i = 0; i < byTag.length; i++) {
+            tagBitmaps.merge(tags.value(i).toLowerCase(Locale.ROOT), Bitmap.of(byTag[i], items.length), Bitmap::or);
+        }
+        this.allItems = Bitmap.all(items.length);
+        this.nutrition = NutritionIndex.build(items);
+    }
+
+    /**
+     * Build a snapshot from projected menu rows
+     */
+    public static MenuSnapshot build(LocalDate date, long version, Collection<MenuItemRow> rows) {
+        StringDictionary.Builder hallIds = StringDictionary.builder();
+        StringDictionary.Builder hallNames = StringDictionary.builder();
+        StringDictionary.Builder categories = StringDictionary.builder();
+        StringDictionary.Builder tags = StringDictionary.builder();
+
+        List<Item> items = new ArrayList<>(rows.size());
+        for (MenuItemRow row : rows) {
+            String hallId = hallIds.canonical(row.getDiningHallId());
+            String hallName = hallNames.canonical(row.getDiningHallName());
+            String category = categories.canonical(row.getCategory());
+
+            List<String> itemTags = row.getTagList();
+            List<String> canonicalTags = new ArrayList<>(itemTags.size());
+            int[] tagCodes = new int[itemTags.size()];
+            for (int i = 0; i < tagCodes.length; i++) {
+                String tag = itemTags.get(i);
+                tagCodes[i] = tags.add(tag);
+                canonicalTags.add(tags.canonical(tag));
+            }
+
+            MenuItemDTO dto = MenuItemDTO.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .description(row.getDescription())
+                .diningHallId(hallId)
+                .diningHallName(hallName)
+                .mealType(row.getMealType().name().toLowerCase())
+                .menuDate(row.getMenuDate())
+                .category(category)
+                .calories(row.getCalories())
+                .protein(row.getProtein())
+                .carbs(row.getCarbs())
+                .fat(row.getFat())
+                .tags(Collections.unmodifiableList(canonicalTags))
+                .build();
+
+            items.add(new Item(dto, row.getMealType(),
+                hallIds.add(hallId), categories.add(category), tagCodes));
+        }
+
+        return new MenuSnapshot(date, version, items.toArray(new Item[0]),
+            hallIds.build(), categories.build(), tags.build());
+    }
+
+    public static MenuSnapshot empty(LocalDate date, long version) {
+        return build(date, version, List.of());
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    public Item getItem(int position) {
+        return items[position];
+    }
+
+    public StringDictionary getHalls() {
+        return halls;
+    }
+
+    public StringDictionary getCategories() {
+        return categories;
+    }
+
+    public StringDictionary getTags() {
+        return tags;
+    }
+
+    /**
+     * All items, optionally narrowed to a hall and/or meal type
+     */
+    public int[] positions(String diningHallId, MealType mealType) {
+        int[] hallPositions = diningHallId != null ? hallPositions(diningHallId) : null;
+        int[] mealPositions = mealType != null ? byMealType[mealType.ordinal()] : null;
+
+        if (hallPositions != null && mealPositions != null) {
+            return intersect(hallPositions, mealPositions);
+        }
+        if (hallPositions != null) return hallPositions;
+        if (mealPositions != null) return mealPositions;
+        return allPositions();
+    }
+
+    public int[] hallPositions(String diningHallId) {
+        int code = halls.code(diningHallId);
+        return code >= 0 ? byHall[code] : NO_POSITIONS;
+    }
+
+    public int[] mealTypePositions(MealType mealType) {
+        return byMealType[mealType.ordinal()];
+    }
+
+    public int[] categoryPositions(String category) {
+        int code = categories.code(category);
+        return code >= 0 ? byCategory[code] : NO_POSITIONS;
+    }
+
+    public int[] tagPositions(String tag) {
+        int code = tags.code(tag);
+        return code >= 0 ? byTag[code] : NO_POSITIONS;
+    }
+
+    /**
+     * Bitmap of the items carrying a tag, ignoring case; empty for unknown tags
+     */
+    public Bitmap tagBitmap(String tag) {
+        Bitmap bitmap = tag != null ? tagBitmaps.get(tag.toLowerCase(Locale.ROOT)) : null;
+        return bitmap != null ? bitmap : Bitmap.empty(items.length);
+    }
+
+    /**
+     * Bitmap of every item
+     */
+    public Bitmap allItems() {
+        return allItems;
+    }
+
+    /**
+     * Nutrition columns for range filters and sorting
+     */
+    public NutritionIndex getNutrition() {
+        return nutrition;
+    }
+
+    public List<MenuItemDTO> toDTOs(int[] positions) {
+        List<MenuItemDTO> dtos = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            dtos.add(items[position].dto);
+        }
+        return Collections.unmodifiableList(dtos);
+    }
+
+    public List<Item> toItems(int[] positions) {
+        List<Item> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(items[position]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private int[] allPositions() {
+        int[] all = new int[items.length];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    private void buildIndexes() {
+        int[] hallCounts = new int[byHall.length];
+        int[] mealCounts = new int[byMealType.length];
+        int[] categoryCounts = new int[byCategory.length];
+        int[] tagCounts = new int[byTag.length];
+
+        for (Item item : items) {
+            if (item.hallCode >= 0) hallCounts[item.hallCode]++;
+            mealCounts[item.mealType.ordinal()]++;
+            if (item.categoryCode >= 0) categoryCounts[item.categoryCode]++;
+            for (int tagCode : item.tagCodes) tagCounts[tagCode]++;
+        }
+
+        allocate(byHall, hallCounts);
+        allocate(byMealType, mealCounts);
+        allocate(byCategory, categoryCounts);
+        allocate(byTag, tagCounts);
+
+        // Positions are appended in item order, so every list ends up sorted
+        Arrays.fill(hallCounts, 0);
+        Arrays.fill(mealCounts, 0);
+        Arrays.fill(categoryCounts, 0);
+        Arrays.fill(tagCounts, 0);
+        for (int i = 0; i < items.length; i++) {
+            Item item = items[i];
+            if (item.hallCode >= 0) byHall[item.hallCode][hallCounts[item.hallCode]++] = i;
+            byMealType[item.mealType.ordinal()][mealCounts[item.mealType.ordinal()]++] = i;
+            if (item.categoryCode >= 0) byCategory[item.categoryCode][categoryCounts[item.categoryCode]++] = i;
+            for (int tagCode : item.tagCodes) byTag[tagCode][tagCounts[tagCode]++] = i;
+        }
+    }
+
+    private static void allocate(int[][] index, int[] counts) {
+        for (int i = 0; i < index.length; i++) {
+            index[i] = new int[counts[i]];
+        }
+    }
+
+    /**
+     * Intersect two sorted position arrays
+     */
+    static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * One menu item inside a snapshot: the shared DTO plus its dictionary codes
+     */
+    public static final class Item {
+
+        private final MenuItemDTO dto;
+        private final MealType mealType;
+        private final int hallCode;
+        private final int categoryCode;
+        private final int[] tagCodes;
+        private final String nameLower;
+        private final String descriptionLower;
+
+        private Item(MenuItemDTO dto, MealType mealType, int hallCode, int categoryCode, int[] tagCodes) {
+            this.dto = dto;
+            this.mealType = mealType;
+            this.hallCode = hallCode;
+            this.categoryCode = categoryCode;
+            this.tagCodes = tagCodes;
+            this.nameLower = dto.getName() != null ? dto.getName().strip().toLowerCase(Locale.ROOT) : "";
+            this.descriptionLower = dto.getDescription() != null
+                ? dto.getDescription().toLowerCase(Locale.ROOT) : null;
+        }
+
+        public MenuItemDTO getDTO() { return dto; }
+        public String getId() { return dto.getId(); }
+        public String getName() { return dto.getName(); }
+        public String getDescription() { return dto.getDescription(); }
+        public String getDiningHallId() { return dto.getDiningHallId(); }
+        public String getDiningHallName() { return dto.getDiningHallName(); }
+        public MealType getMealType() { return mealType; }
+        public String getCategory() { return dto.getCategory(); }
+        public Integer getCalories() { return dto.getCalories(); }
+        public Integer getProtein() { return dto.getProtein(); }
+        public List<String> getTags() { return dto.getTags(); }
+        public int getHallCode() { return hallCode; }
+        public int getCategoryCode() { return categoryCode; }
+        public int[] getTagCodes() { return tagCodes; }
+        public String getNameLower() { return nameLower; }
+        public String getDescriptionLower() { return descriptionLower; }
+
+        /**
+         * Row this item was built from, for rebuilding a snapshot with some items changed
+         */
+        public MenuItemRow toRow() {
+            return new MenuItemRow(dto.getId(), dto.getName(), dto.getDescription(), dto.getDiningHallId(),
+                dto.getDiningHallName(), mealType, dto.getMenuDate(), dto.getCategory(),
+                dto.getCalories(), dto.getProtein(), dto.getCarbs(), dto.getFat(),
+                dto.getTags().isEmpty() ? null : String.join(MenuItemRow.TAG_SEPARATOR, dto.getTags()));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.model.DiningHall;
+import com.umassdining.repository.DiningHallRepository;
+import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link MenuSnapshot} per date.
+ *
+ * A date is loaded from the database once, on first read, and afterwards only
+ * when {@link #refresh} is called by an admin write. Scrapes publish a
+ * {@link MenuChangedEvent} instead, which is patched into the held snapshot
+ * without going back to the database. Dates outside the cache window are
+ * served from a one-off snapshot that is not retained, and snapshots and
+ * versions are pruned daily as the window moves.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSnapshotStore {
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuSearchIndex menuSearchIndex;
+    private final DiningHallRepository diningHallRepository;
+
+    private final Map<LocalDate, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Current menu version per date, published only after the matching snapshot is in place
+    private final Map<LocalDate, Long> dateVersions = new ConcurrentHashMap<>();
+
+    // Seeded from the clock so versions keep increasing across restarts
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+
+    @Value("${menu.snapshot.days-back:7}")
+    private int daysBack;
+
+    @Value("${menu.snapshot.days-ahead:14}")
+    private int daysAhead;
+
+    /**
+     * Get the snapshot for a date, loading it on first use
+     */
+    public MenuSnapshot get(LocalDate date) {
+        MenuSnapshot snapshot = snapshots.get(date);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (!isCacheable(date)) {
+            return load(date);
+        }
+        // computeIfAbsent also makes concurrent first readers share one load
+        return snapshots.computeIfAbsent(date, this::load);
+    }
+
+    /**
+     * Current version of a date's menu, without loading it; changes whenever the date is refreshed or evicted.
+     * Dates outside the window are not tracked and report the latest version of any date, which moves on every change
+     */
+    public long version(LocalDate date) {
+        if (!isCacheable(date)) {
+            return versions.get();
+        }
+        return dateVersions.computeIfAbsent(date, d -> versions.incrementAndGet());
+    }
+
+    /**
+     * Rebuild a date's snapshot from the database and swap it in under a new version
+     */
+    public MenuSnapshot refresh(LocalDate date) {
+        MenuSnapshot snapshot;
+        if (isCacheable(date)) {
+            // compute serializes this with change events and other refreshes of the same date
+            snapshot = snapshots.compute(date, (d, current) -> install(build(d, versions.incrementAndGet())));
+        } else {
+            snapshot = build(date, versions.incrementAndGet());
+            menuSearchIndex.index(snapshot);
+        }
+        log.debug("Refreshed menu snapshot for {} (version {}, {} items)",
+            date, snapshot.getVersion(), snapshot.size());
+        return snapshot;
+    }
+
+    /**
+     * Rebuild a held snapshot with a committed change applied, under a new version;
+     * a date with no held snapshot is refreshed from the database instead
+     */
+    @EventListener
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        LocalDate date = event.date();
+        if (!isCacheable(date)) {
+            refresh(date);
+            return;
+        }
+        MenuSnapshot snapshot = snapshots.compute(date, (d, current) -> install(current == null
+            ? build(d, versions.incrementAndGet())
+            : patch(current, event)));
+        log.debug("Patched menu snapshot for {} (version {}, {} upserted, {} deleted, {} removed)",
+            date, snapshot.getVersion(), event.upserted().size(), event.deletedIds().size(),
+            event.removedIds().size());
+    }
+
+    private MenuSnapshot patch(MenuSnapshot current, MenuChangedEvent event) {
+        Map<String, MenuItemRow> rows = new LinkedHashMap<>();
+        Map<String, String> hallNames = new HashMap<>();
+        for (int i = 0; i < current.size(); i++) {
+            MenuSnapshot.Item item = current.getItem(i);
+            rows.put(item.getId(), item.toRow());
+            hallNames.putIfAbsent(item.getDiningHallId(), item.getDiningHallName());
+        }
+        rows.keySet().removeAll(event.deletedIds());
+        rows.keySet().removeAll(event.removedIds());
+
+        // Newly inserted entities carry no joined hall; reuse the names the snapshot
+        // already has and look up the rest, e.g. on the first scrape of a date
+        Set<String> unnamed = new HashSet<>();
+        for (MenuItemRow row : event.upserted()) {
+            if (row.getDiningHallName() == null && row.getDiningHallId() != null
+                    && !hallNames.containsKey(row.getDiningHallId())) {
+                unnamed.add(row.getDiningHallId());
+            }
+        }
+        if (!unnamed.isEmpty()) {
+            for (DiningHall hall : diningHallRepository.findAllById(unnamed)) {
+                hallNames.put(hall.getId(), hall.getName());
+            }
+        }
+        for (MenuItemRow row : event.upserted()) {
+            if (row.getDiningHallName() == null) {
+                row.setDiningHallName(hallNames.get(row.getDiningHallId()));
+            }
+            rows.put(row.getId(), row);
+        }
+        return MenuSnapshot.build(current.getDate(), versions.incrementAndGet(), rows.values());
+    }
+
+    // Publish a snapshot's version and index it; called inside compute so both follow the map's order
+    private MenuSnapshot install(MenuSnapshot snapshot) {
+        dateVersions.put(snapshot.getDate(), snapshot.getVersion());
+        menuSearchIndex.index(snapshot);
+        return snapshot;
+    }
+
+    public void refreshAll(Collection<LocalDate> dates) {
+        dates.forEach(this::refresh);
+    }
+
+    /**
+     * Refresh once the surrounding transaction commits, or right away if there is none
+     */
+    public void refreshAfterCommit(Collection<LocalDate> dates) {
+        TransactionHooks.afterCommit(() -> refreshAll(dates));
+    }
+
+    /**
+     * Drop snapshots and versions for dates before the cutoff
+     */
+    public void evictBefore(LocalDate cutoffDate) {
+        snapshots.keySet().removeIf(date -> date.isBefore(cutoffDate));
+        dateVersions.keySet().removeIf(date -> date.isBefore(cutoffDate));
+    }
+
+    /**
+     * Drop snapshots and versions of dates that have left the cache window
+     */
+    @Scheduled(cron = "${menu.snapshot.prune-cron:0 5 0 * * *}")
+    public void pruneOutsideWindow() {
+        snapshots.keySet().removeIf(date -> !isCacheable(date));
+        dateVersions.keySet().removeIf(date -> !isCacheable(date));
+    }
+
+    private MenuSnapshot load(LocalDate date) {
+        return build(date, version(date));
+    }
+
+    private MenuSnapshot build(LocalDate date, long version) {
+        return MenuSnapshot.build(date, version, menuItemRepository.findRowsByMenuDate(date));
+    }
+
+    /**
+     * Whether a date is inside the window of retained snapshots
+     */
+    public boolean isCacheable(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today.minusDays(daysBack)) && !date.isAfter(today.plusDays(daysAhead));
+    }
+}
@@ -0,0 +1,226 @@
+package com.umassdining.service;
+
+import com.umassdining.enums.MealType;
+import com.umassdining.util.AhoCorasick;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Classifies scraped menu text against a word lexicon in one scan.
+ *
+ * Every lexicon term is compiled into a single whole-word, case-folding
+ * {@link AhoCorasick} automaton, so one pass over a line finds its food
+ * words, meal and station headers, meat, seafood, dairy, egg and gluten
+ * signals and allergens together. The lexicon is a versioned text
+ * resource, menu-lexicon.txt by default, read once at startup.
+ */
+@Component
+@Slf4j
+public class MenuTextClassifier {
+
+    private static final int MIN_FOOD_LENGTH = 4;
+    private static final int MAX_FOOD_LENGTH = 80;
+
+    private static final int FOOD = 1;
+    private static final int MEAT = 1 << 1;
+    private static final int SEAFOOD = 1 << 2;
+    private static final int DAIRY = 1 << 3;
+    private static final int EGG = 1 << 4;
+    private static final int GLUTEN = 1 << 5;
+    private static final int GLUTEN_FREE = 1 << 6;
+
+    private static final Map<String, Integer> SIGNAL_SECTIONS = Map.of(
+        "food", FOOD, "meat", MEAT, "seafood", SEAFOOD, "dairy", DAIRY,
+        "egg", EGG, "gluten", GLUTEN, "gluten-free", GLUTEN_FREE);
+
+    /**
+     * What one line of text says: whether it looks like a dish, the meal or
+     * station header it names, if any, and dietary tags when it is a dish
+     */
+    public record Classification(boolean food, MealType meal, String category, List<String> tags) {}
+
+    private final String version;
+    private final AhoCorasick automaton;
+    // Per pattern id: signal bits, meal and category rank (-1 for none), allergen bits
+    private final int[] signals;
+    private final int[] mealRanks;
+    private final int[] categoryRanks;
+    private final long[] allergenBits;
+    private final MealType[] meals;
+    private final String[] categories;
+    private final String[] allergens;
+
+    @Autowired
+    public MenuTextClassifier(@Value("${scraping.lexicon:classpath:menu-lexicon.txt}") Resource lexicon)
+            throws IOException {
+        this(read(lexicon), lexicon.getDescription());
+        log.info("Loaded menu lexicon version {} with {} terms", version, automaton.patternCount());
+    }
+
+    MenuTextClassifier(List<String> lines, String source) {
+        String lexiconVersion = null;
+        Map<String, Term> terms = new LinkedHashMap<>();
+        List<MealType> mealList = new ArrayList<>();
+        List<String> categoryList = new ArrayList<>();
+        List<String> allergenList = new ArrayList<>();
+
+        int signal = 0, mealRank = -1, categoryRank = -1, allergen = -1;
+        boolean inSection = false;
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            if (line.startsWith("version ")) {
+                lexiconVersion = line.substring("version ".length()).strip();
+            } else if (line.startsWith("[") && line.endsWith("]")) {
+                String header = line.substring(1, line.length() - 1).strip();
+                int space = header.indexOf(' ');
+                String kind = space < 0 ? header : header.substring(0, space);
+                String name = space < 0 ? "" : header.substring(space + 1).strip();
+                signal = 0;
+                mealRank = categoryRank = allergen = -1;
+                if (SIGNAL_SECTIONS.containsKey(kind) && name.isEmpty()) {
+                    signal = SIGNAL_SECTIONS.get(kind);
+                } else if (kind.equals("meal") && !name.isEmpty()) {
+                    try {
+                        mealList.add(MealType.valueOf(name.toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        throw invalid(source, n, "unknown meal '" + name + "'");
+                    }
+                    mealRank = mealList.size() - 1;
+                } else if (kind.equals("category") && !name.isEmpty()) {
+                    categoryList.add(name);
+                    categoryRank = categoryList.size() - 1;
+                } else if (kind.equals("allergen") && !name.isEmpty()) {
+                    if (allergenList.size() == Long.SIZE) {
+                        throw invalid(source, n, "more than " + Long.SIZE + " allergens");
+                    }
+                    allergenList.add(name);
+                    allergen = allergenList.size() - 1;
+                } else {
+                    throw invalid(source, n, "unknown section [" + header + "]");
+                }
+                inSection = true;
+            } else if (!inSection) {
+                throw invalid(source, n, "term '" + line + "' outside a section");
+            } else {
+                Term term = terms.computeIfAbsent(line.toLowerCase(Locale.ROOT), key -> new Term());
+                term.signals |= signal;
+                if (mealRank >= 0 && term.mealRank < 0) term.mealRank = mealRank;
+                if (categoryRank >= 0 && term.categoryRank < 0) term.categoryRank = categoryRank;
+                if (allergen >= 0) term.allergens |= 1L << allergen;
+            }
+        }
+        if (lexiconVersion == null || lexiconVersion.isEmpty()) {
+            throw new IllegalStateException("Menu lexicon " + source + " has no version line");
+        }
+
+        this.version = lexiconVersion;
+        this.automaton = AhoCorasick.compile(new ArrayList<>(terms.keySet()), true);
+        this.signals = new int[terms.size()];
+        this.mealRanks = new int[terms.size()];
+        this.categoryRanks = new int[terms.size()];
+        this.allergenBits = new long[terms.size()];
+        int id = 0;
+        for (Term term : terms.values()) {
+            signals[id] = term.signals;
+            mealRanks[id] = term.mealRank;
+            categoryRanks[id] = term.categoryRank;
+            allergenBits[id] = term.allergens;
+            id++;
+        }
+        this.meals = mealList.toArray(new MealType[0]);
+        this.categories = categoryList.toArray(new String[0]);
+        this.allergens = allergenList.toArray(new String[0]);
+    }
+
+    /**
+     * Lexicon version, changed whenever its terms are edited
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Classify one line of scraped text in a single scan
+     */
+    public Classification classify(String text) {
+        long[] found = new long[automaton.bitsetWords()];
+        automaton.collect(text, found);
+
+        int flags = 0;
+        int meal = Integer.MAX_VALUE;
+        int category = Integer.MAX_VALUE;
+        long allergenFlags = 0;
+        for (int word = 0; word < found.length; word++) {
+            long bits = found[word];
+            while (bits != 0) {
+                int id = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                flags |= signals[id];
+                if (mealRanks[id] >= 0) meal = Math.min(meal, mealRanks[id]);
+                if (categoryRanks[id] >= 0) category = Math.min(category, categoryRanks[id]);
+                allergenFlags |= allergenBits[id];
+            }
+        }
+
+        boolean food = (flags & FOOD) != 0
+            && text.length() >= MIN_FOOD_LENGTH && text.length() <= MAX_FOOD_LENGTH;
+        return new Classification(food,
+            meal == Integer.MAX_VALUE ? null : meals[meal],
+            category == Integer.MAX_VALUE ? null : categories[category],
+            food ? tags(flags, allergenFlags) : List.of());
+    }
+
+    private List<String> tags(int flags, long allergenFlags) {
+        List<String> tags = new ArrayList<>();
+        if ((flags & (MEAT | SEAFOOD)) == 0) {
+            tags.add("vegetarian");
+            if ((flags & (DAIRY | EGG)) == 0) {
+                tags.add("vegan");
+                tags.add("dairy-free");
+            }
+        }
+        if ((flags & GLUTEN_FREE) != 0) {
+            tags.add("gluten-free");
+        } else if ((flags & GLUTEN) != 0) {
+            tags.add("contains-gluten");
+        }
+        while (allergenFlags != 0) {
+            tags.add(allergens[Long.numberOfTrailingZeros(allergenFlags)]);
+            allergenFlags &= allergenFlags - 1;
+        }
+        return tags;
+    }
+
+    private static List<String> read(Resource lexicon) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(lexicon.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private static IllegalStateException invalid(String source, int index, String message) {
+        return new IllegalStateException("Menu lexicon " + source + " line " + (index + 1) + ": " + message);
+    }
+
+    private static final class Term {
+        int signals;
+        int mealRank = -1;
+        int categoryRank = -1;
+        long allergens;
+    }
+}
@@ -0,0 +1,222 @@
+package com.umassdining.service;
+
+import com.umassdining.util.Bitmap;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Column-oriented nutrition values of one {@link MenuSnapshot}.
+ *
+ * Each nutrient is an int column indexed by item position with a separate
+ * null bitmap, plus a permutation of the non-null positions sorted by value.
+ * A range condition is two binary searches into the sorted values, and
+ * sorting a selection walks the permutation keeping selected positions.
+ * Items with no value never match a range and sort last in either order.
+ */
+public final class NutritionIndex {
+
+    private static final Pattern CONDITION =
+        Pattern.compile("^\\s*([a-zA-Z]+)\\s*(<=|>=|!=|<|>|=)\\s*(\\d{1,6}|null)\\s*$");
+    private static final Pattern SORT = Pattern.compile("^([a-zA-Z]+)(?:_(asc|desc))?$");
+
+    public enum Nutrient {
+        CALORIES, PROTEIN, CARBS, FAT;
+
+        public static Nutrient fromName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown nutrient '" + name + "'; expected calories, protein, carbs or fat");
+            }
+        }
+    }
+
+    /**
+     * A single filter such as calories&lt;=600 or protein!=null; value is ignored for null checks
+     */
+    public record Condition(Nutrient nutrient, String operator, int value) {
+
+        /**
+         * Parse "calories<=600", "protein>30", "fat=null" and the like
+         */
+        public static Condition parse(String text) {
+            Matcher matcher = CONDITION.matcher(text);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid nutrition condition '" + text + "'");
+            }
+            Nutrient nutrient = Nutrient.fromName(matcher.group(1));
+            String operator = matcher.group(2);
+            boolean nullCheck = matcher.group(3).equals("null");
+            boolean equality = operator.equals("=") || operator.equals("!=");
+            if (nullCheck && !equality) {
+                throw new IllegalArgumentException("Only = and != can be used with null in '" + text + "'");
+            }
+            if (operator.equals("!=") && !nullCheck) {
+                throw new IllegalArgumentException("!= is only supported with null in '" + text + "'");
+            }
+            return new Condition(nutrient, nullCheck ? operator + "null" : operator,
+                nullCheck ? 0 : Integer.parseInt(matcher.group(3)));
+        }
+    }
+
+    /**
+     * Sort order such as protein_desc; ascending when no direction is given
+     */
+    public record Sort(Nutrient nutrient, boolean descending) {
+
+        public static Sort parse(String text) {
+            Matcher matcher = SORT.matcher(text.strip());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid sort '" + text + "'; expected e.g. protein_desc");
+            }
+            return new Sort(Nutrient.fromName(matcher.group(1)), "desc".equals(matcher.group(2)));
+        }
+    }
+
+    private final int size;
+    private final Column[] columns = new Column[Nutrient.values().length];
+
+    private NutritionIndex(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Build every column from the snapshot's items
+     */
+    static NutritionIndex build(MenuSnapshot.Item[] items) {
+        NutritionIndex index = new NutritionIndex(items.length);
+        index.columns[Nutrient.CALORIES.ordinal()] = Column.build(items, item -> item.getDTO().getCalories());
+        index.columns[Nutrient.PROTEIN.ordinal()] = Column.build(items, item -> item.getDTO().getProtein());
+        index.columns[Nutrient.CARBS.ordinal()] = Column.build(items, item -> item.getDTO().getCarbs());
+        index.columns[Nutrient.FAT.ordinal()] = Column.build(items, item -> item.getDTO().getFat());
+        return index;
+    }
+
+    /**
+     * Value at a position; only meaningful when {@link #hasValue} is true
+     */
+    public int value(Nutrient nutrient, int position) {
+        return columns[nutrient.ordinal()].values[position];
+    }
+
+    public boolean hasValue(Nutrient nutrient, int position) {
+        return !columns[nutrient.ordinal()].nulls.get(position);
+    }
+
+    /**
+     * Positions satisfying a condition
+     */
+    public Bitmap matching(Condition condition) {
+        Column column = columns[condition.nutrient().ordinal()];
+        int value = condition.value();
+        return switch (condition.operator()) {
+            case "=null" -> column.nulls;
+            case "!=null" -> column.range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case "<=" -> column.range(Integer.MIN_VALUE, value);
+            case "<" -> value == Integer.MIN_VALUE ? Bitmap.empty(size) : column.range(Integer.MIN_VALUE, value - 1);
+            case ">=" -> column.range(value, Integer.MAX_VALUE);
+            case ">" -> value == Integer.MAX_VALUE ? Bitmap.empty(size) : column.range(value + 1, Integer.MAX_VALUE);
+            case "=" -> column.range(value, value);
+            default -> throw new IllegalArgumentException("Unknown operator " + condition.operator());
+        };
+    }
+
+    /**
+     * Selected positions in sort order, items without a value last; at most limit of them
+     */
+    public int[] sorted(Sort sort, Bitmap selected, int limit) {
+        Column column = columns[sort.nutrient().ordinal()];
+        int[] out = new int[Math.min(limit, selected.cardinality())];
+        int n = 0;
+        int[] order = column.sorted;
+        if (sort.descending()) {
+            for (int i = order.length - 1; i >= 0 && n < out.length; i--) {
+                if (selected.get(order[i])) out[n++] = order[i];
+            }
+        } else {
+            for (int i = 0; i < order.length && n < out.length; i++) {
+                if (selected.get(order[i])) out[n++] = order[i];
+            }
+        }
+        if (n < out.length) {
+            int[] missing = selected.and(column.nulls).toPositions();
+            for (int i = 0; i < missing.length && n < out.length; i++) {
+                out[n++] = missing[i];
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * One nutrient: values by position, null bitmap, and non-null positions sorted by value
+     */
+    private static final class Column {
+
+        final int[] values;
+        final Bitmap nulls;
+        final int[] sorted;
+        final int[] sortedValues;
+        final int size;
+
+        private Column(int[] values, Bitmap nulls, int[] sorted, int[] sortedValues) {
+            this.values = values;
+            this.nulls = nulls;
+            this.sorted = sorted;
+            this.sortedValues = sortedValues;
+            this.size = values.length;
+        }
+
+        static Column build(MenuSnapshot.Item[] items, Function<MenuSnapshot.Item, Integer> getter) {
+            int[] values = new int[items.length];
+            int[] nullPositions = new int[items.length];
+            int nullCount = 0;
+            // Pack value and position into one long so a primitive sort orders by value, then position
+            long[] keyed = new long[items.length];
+            int keyedCount = 0;
+            for (int i = 0; i < items.length; i++) {
+                Integer value = getter.apply(items[i]);
+                if (value == null) {
+                    nullPositions[nullCount++] = i;
+                } else {
+                    values[i] = value;
+                    keyed[keyedCount++] = (long) value << 32 | i;
+                }
+            }
+            Arrays.sort(keyed, 0, keyedCount);
+            int[] sorted = new int[keyedCount];
+            int[] sortedValues = new int[keyedCount];
+            for (int i = 0; i < keyedCount; i++) {
+                sorted[i] = (int) keyed[i];
+                sortedValues[i] = (int) (keyed[i] >> 32);
+            }
+            return new Column(values, Bitmap.of(nullPositions, 0, nullCount, items.length), sorted, sortedValues);
+        }
+
+        /**
+         * Positions whose value lies in [min, max]
+         */
+        Bitmap range(int min, int max) {
+            if (min > max) {
+                return Bitmap.empty(size);
+            }
+            int from = lowerBound(min);
+            int to = max == Integer.MAX_VALUE ? sortedValues.length : lowerBound(max + 1);
+            return Bitmap.of(sorted, from, to, size);
+        }
+
+        // First index whose value is >= target
+        private int lowerBound(int target) {
+            int low = 0, high = sortedValues.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] < target) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+    }
+}
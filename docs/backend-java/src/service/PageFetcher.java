@@ -0,0 +1,147 @@
+package com.umassdining.service;
+
+import com.umassdining.util.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polite HTTP fetching for the scraper, safe to call from many threads.
+ *
+ * Every request, retries included, first takes a token from its host's
+ * bucket, so concurrent scrapes share one request rate per host. Timeouts,
+ * connection errors, 429 and 5xx responses are retried with exponential
+ * backoff and full jitter, honouring Retry-After when it asks for longer.
+ * Pages can be fetched conditionally on the ETag and Last-Modified of an
+ * earlier response.
+ */
+@Component
+@Slf4j
+public class PageFetcher {
+
+    private static final String USER_AGENT = "UMass Dining Recommendation Bot/1.0";
+
+    @Value("${scraping.rate.permits-per-second:1}")
+    private double permitsPerSecond;
+
+    @Value("${scraping.rate.burst:4}")
+    private int burst;
+
+    @Value("${scraping.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${scraping.retry.base-delay-ms:500}")
+    private long baseDelayMs;
+
+    @Value("${scraping.retry.max-delay-ms:8000}")
+    private long maxDelayMs;
+
+    @Value("${scraping.timeout-ms:15000}")
+    private int timeoutMs;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * GET and parse a page, retrying transient failures
+     */
+    public Document fetch(String url) throws IOException, InterruptedException {
+        return fetchIfChanged(url, null, null).parse(url);
+    }
+
+    /**
+     * GET a page conditionally on validators from an earlier fetch, either of which may be null.
+     * The result is not modified when the server answered 304.
+     */
+    public Page fetchIfChanged(String url, String etag, String lastModified)
+            throws IOException, InterruptedException {
+        TokenBucket bucket = buckets.computeIfAbsent(host(url), host -> new TokenBucket(permitsPerSecond, burst));
+        for (int attempt = 1; ; attempt++) {
+            bucket.acquire();
+            long retryAfterMs = 0;
+            IOException failure;
+            try {
+                Connection connection = Jsoup.connect(url)
+                    .userAgent(USER_AGENT)
+                    .timeout(timeoutMs)
+                    .ignoreHttpErrors(true);
+                if (etag != null) connection.header("If-None-Match", etag);
+                if (lastModified != null) connection.header("If-Modified-Since", lastModified);
+                Connection.Response response = connection.execute();
+                int status = response.statusCode();
+                if (status == 304) {
+                    return new Page(true, null, null, etag, lastModified);
+                }
+                if (status < 400) {
+                    return new Page(false, response.bodyAsBytes(), response.charset(),
+                        response.header("ETag"), response.header("Last-Modified"));
+                }
+                failure = new HttpStatusException("HTTP " + status, status, url);
+                if (status != 429 && status < 500) {
+                    throw failure;
+                }
+                retryAfterMs = retryAfterMs(response.header("Retry-After"));
+            } catch (HttpStatusException e) {
+                throw e;
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            if (attempt >= maxAttempts) {
+                throw failure;
+            }
+            long delay = Math.max(backoffMs(attempt), retryAfterMs);
+            log.warn("Fetching {} failed ({}), retry {} of {} in {} ms",
+                url, failure.getMessage(), attempt, maxAttempts - 1, delay);
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * A fetched page: the raw body and the validators to send next time,
+     * or just the validators when the server answered 304
+     */
+    public record Page(boolean notModified, byte[] body, String charset, String etag, String lastModified) {
+
+        public Document parse(String url) throws IOException {
+            if (notModified) {
+                throw new IllegalStateException("Page was not modified and has no body");
+            }
+            return Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+        }
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))]
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    // Retry-After in seconds; the HTTP-date form is rare enough to ignore
+    private long retryAfterMs(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Math.min(maxDelayMs, TimeUnit.SECONDS.toMillis(Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String host(String url) {
+        String host = URI.create(url).getHost();
+        return host != null ? host : url;
+    }
+}
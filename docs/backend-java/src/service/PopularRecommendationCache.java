@@ -0,0 +1,94 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.enums.MealType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Popular-item lists served to guests and users without preferences, keyed
+ * by (date, meal type).
+ *
+ * An entry is rebuilt when the menu snapshot changes, when it is older than
+ * the TTL, or when enough ratings were written since it was built. Concurrent
+ * misses for the same key wait on a single computation.
+ */
+@Component
+public class PopularRecommendationCache {
+
+    @Value("${recommendations.popular.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${recommendations.popular.rating-threshold:25}")
+    private long ratingThreshold;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong ratingWrites = new AtomicLong();
+
+    /**
+     * Top k popular items for a snapshot and meal, computing the full list with loader on a miss
+     */
+    public List<RecommendationDTO> get(MenuSnapshot snapshot, MealType mealType, int k,
+                                       Supplier<List<RecommendationDTO>> loader) {
+        Key key = new Key(snapshot.getDate(), mealType);
+        Entry entry = entries.get(key);
+        if (entry == null || isStale(entry, snapshot)) {
+            entry = load(key, snapshot, loader);
+        }
+        List<RecommendationDTO> items = entry.items();
+        return items.subList(0, Math.min(k, items.size()));
+    }
+
+    /**
+     * Count a rating write towards the rebuild threshold
+     */
+    public void onRatingWritten() {
+        ratingWrites.incrementAndGet();
+    }
+
+    private Entry load(Key key, MenuSnapshot snapshot, Supplier<List<RecommendationDTO>> loader) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return running.join();
+        }
+
+        try {
+            // Another caller may have finished a rebuild between our check and claiming the slot
+            Entry current = entries.get(key);
+            if (current == null || isStale(current, snapshot)) {
+                long writes = ratingWrites.get();
+                current = new Entry(snapshot.getVersion(), System.nanoTime(), writes, List.copyOf(loader.get()));
+                entries.put(key, current);
+            }
+            mine.complete(current);
+            return current;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private boolean isStale(Entry entry, MenuSnapshot snapshot) {
+        return entry.snapshotVersion() != snapshot.getVersion()
+            || System.nanoTime() - entry.builtAtNanos() > TimeUnit.SECONDS.toNanos(ttlSeconds)
+            || ratingWrites.get() - entry.ratingWritesAtBuild() >= ratingThreshold;
+    }
+
+    private record Key(LocalDate date, MealType mealType) {}
+
+    private record Entry(long snapshotVersion, long builtAtNanos, long ratingWritesAtBuild,
+                         List<RecommendationDTO> items) {}
+}
@@ -0,0 +1,156 @@
+package com.umassdining.service;
+
+import com.umassdining.model.UserPreference;
+import com.umassdining.util.AhoCorasick;
+import com.umassdining.util.StringDictionary;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A user's preferences compiled for scoring.
+ *
+ * Disliked ingredients become one case-insensitive automaton. Dietary
+ * preferences and favorite halls are resolved against a snapshot's tag and
+ * hall dictionaries into bitmasks, once per snapshot version, so scoring an
+ * item only tests bits and scans its text.
+ */
+public final class PreferenceMatcher {
+
+    private final String userId;
+    private final LocalDateTime preferenceVersion;
+    private final String[] dietaryPreferences;
+    private final List<String> favoriteHalls;
+    private final AhoCorasick dislikedIngredients;
+
+    private volatile SnapshotMatcher snapshotMatcher;
+
+    private PreferenceMatcher(String userId, LocalDateTime preferenceVersion, String[] dietaryPreferences,
+                              List<String> favoriteHalls, AhoCorasick dislikedIngredients) {
+        this.userId = userId;
+        this.preferenceVersion = preferenceVersion;
+        this.dietaryPreferences = dietaryPreferences;
+        this.favoriteHalls = favoriteHalls;
+        this.dislikedIngredients = dislikedIngredients;
+    }
+
+    public static PreferenceMatcher compile(UserPreference prefs) {
+        String[] dietary = prefs.getDietaryPreferences() == null ? new String[0]
+            : prefs.getDietaryPreferences().stream()
+                .filter(Objects::nonNull)
+                .map(pref -> pref.toLowerCase(Locale.ROOT))
+                .toArray(String[]::new);
+
+        List<String> dislikes = prefs.getDislikedIngredients() == null ? List.of()
+            : prefs.getDislikedIngredients().stream()
+                .filter(ing -> ing != null && !ing.isBlank())
+                .toList();
+
+        List<String> halls = prefs.getFavoriteHalls() == null ? List.of()
+            : prefs.getFavoriteHalls().stream().filter(Objects::nonNull).toList();
+
+        return new PreferenceMatcher(String.valueOf(prefs.getUserId()), prefs.getUpdatedAt(), dietary, halls,
+            dislikes.isEmpty() ? null : AhoCorasick.compile(dislikes, false));
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getPreferenceVersion() {
+        return preferenceVersion;
+    }
+
+    /**
+     * Scratch bitset for {@link SnapshotMatcher#countDislikedIngredients}, allocate once per request
+     */
+    public long[] newScratch() {
+        return new long[dislikedIngredients != null ? dislikedIngredients.bitsetWords() : 0];
+    }
+
+    /**
+     * Matcher bound to a snapshot's dictionaries, reused until the snapshot is replaced
+     */
+    public SnapshotMatcher forSnapshot(MenuSnapshot snapshot) {
+        SnapshotMatcher current = snapshotMatcher;
+        if (current == null || current.snapshotVersion != snapshot.getVersion()) {
+            current = new SnapshotMatcher(snapshot);
+            snapshotMatcher = current;
+        }
+        return current;
+    }
+
+    public final class SnapshotMatcher {
+
+        private final long snapshotVersion;
+        private final long[][] dietaryTagMasks;
+        private final long[] favoriteHallMask;
+
+        private SnapshotMatcher(MenuSnapshot snapshot) {
+            this.snapshotVersion = snapshot.getVersion();
+
+            // A preference matches every tag that contains it, e.g. "vegan" -> "vegan", "vegan-option"
+            StringDictionary tags = snapshot.getTags();
+            this.dietaryTagMasks = new long[dietaryPreferences.length][];
+            for (int p = 0; p < dietaryPreferences.length; p++) {
+                long[] mask = new long[(tags.size() + 63) >>> 6];
+                for (int code = 0; code < tags.size(); code++) {
+                    if (tags.value(code).toLowerCase(Locale.ROOT).contains(dietaryPreferences[p])) {
+                        mask[code >>> 6] |= 1L << (code & 63);
+                    }
+                }
+                dietaryTagMasks[p] = mask;
+            }
+
+            StringDictionary halls = snapshot.getHalls();
+            this.favoriteHallMask = new long[(halls.size() + 63) >>> 6];
+            for (String hall : favoriteHalls) {
+                int code = halls.code(hall);
+                if (code >= 0) {
+                    favoriteHallMask[code >>> 6] |= 1L << (code & 63);
+                }
+            }
+        }
+
+        public int getDietaryPreferenceCount() {
+            return dietaryTagMasks.length;
+        }
+
+        /**
+         * Number of dietary preferences satisfied by at least one of the item's tags
+         */
+        public int countDietaryMatches(MenuSnapshot.Item item) {
+            int matches = 0;
+            int[] tagCodes = item.getTagCodes();
+            for (long[] mask : dietaryTagMasks) {
+                for (int code : tagCodes) {
+                    if ((mask[code >>> 6] & (1L << (code & 63))) != 0) {
+                        matches++;
+                        break;
+                    }
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * Number of distinct disliked ingredients named in the item's name or description
+         */
+        public int countDislikedIngredients(MenuSnapshot.Item item, long[] scratch) {
+            if (dislikedIngredients == null) {
+                return 0;
+            }
+            Arrays.fill(scratch, 0);
+            return dislikedIngredients.collect(item.getName(), scratch)
+                + dislikedIngredients.collect(item.getDescription(), scratch);
+        }
+
+        public boolean isFavoriteHall(MenuSnapshot.Item item) {
+            int code = item.getHallCode();
+            return code >= 0 && (favoriteHallMask[code >>> 6] & (1L << (code & 63))) != 0;
+        }
+    }
+}
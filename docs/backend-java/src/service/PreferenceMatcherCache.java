@@ -0,0 +1,43 @@
+package com.umassdining.service;
+
+import com.umassdining.repository.UserPreferenceRepository;
+import com.umassdining.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled {@link PreferenceMatcher}s by user id.
+ *
+ * Users without saved preferences are cached too, so neither case goes back
+ * to the database until {@link #invalidate} is called on a preference write.
+ */
+@Component
+@RequiredArgsConstructor
+public class PreferenceMatcherCache {
+
+    private static final Optional<PreferenceMatcher> NO_PREFERENCES = Optional.empty();
+
+    private final UserPreferenceRepository userPreferenceRepository;
+
+    private final Map<String, Optional<PreferenceMatcher>> matchers = new ConcurrentHashMap<>();
+
+    public Optional<PreferenceMatcher> get(String userId) {
+        if (userId == null) {
+            return NO_PREFERENCES;
+        }
+        return matchers.computeIfAbsent(userId, id ->
+            userPreferenceRepository.findByUserId(id).map(PreferenceMatcher::compile));
+    }
+
+    /**
+     * Drop a user's matcher now and again after commit, so a read racing the write cannot re-cache stale data
+     */
+    public void invalidate(String userId) {
+        matchers.remove(userId);
+        TransactionHooks.afterCommit(() -> matchers.remove(userId));
+    }
+}
@@ -0,0 +1,191 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemRatingStats;
+import com.umassdining.dto.RatingBucket;
+import com.umassdining.model.MenuItemRatingHistogram;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.repository.MenuItemRatingHistogramRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free per-item rating histograms.
+ *
+ * Each item keeps one {@link LongAdder} per star value, so concurrent rating
+ * writes never contend on a lock and reads derive count, average and standard
+ * deviation from five sums. The counters are rebuilt at startup from one
+ * grouped query over meal_ratings, the source of truth, so ratings written
+ * after the last flush survive a crash. Changed items are copied to
+ * menu_item_rating_stats periodically and on shutdown, and items are evicted
+ * when their menu rows are deleted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingCounters {
+
+    private final MenuItemRatingHistogramRepository histogramRepository;
+    private final MealRatingRepository mealRatingRepository;
+
+    private final Map<String, ItemCounters> counters = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (RatingBucket bucket : mealRatingRepository.getRatingHistograms()) {
+            if (bucket.getRating() == null || bucket.getRating() < 1 || bucket.getRating() > 5) continue;
+            ItemCounters item = countersFor(bucket.getMenuItemId());
+            item.stars[bucket.getRating() - 1].add(bucket.getRatingCount());
+            item.dirty = true;
+        }
+        log.info("Loaded rating counters for {} menu items from meal_ratings", counters.size());
+        // Bring menu_item_rating_stats up to date with anything the last run did not flush
+        flush();
+    }
+
+    /**
+     * Count a rating write; previousRating is non-null when an existing rating was changed
+     */
+    public void record(String menuItemId, int rating, Integer previousRating) {
+        ItemCounters item = countersFor(menuItemId);
+        if (previousRating != null) {
+            item.stars[previousRating - 1].decrement();
+        }
+        item.stars[rating - 1].increment();
+        item.dirty = true;
+    }
+
+    public long getCount(String menuItemId) {
+        ItemCounters item = counters.get(menuItemId);
+        if (item == null) {
+            return 0;
+        }
+        long count = 0;
+        for (LongAdder star : item.stars) {
+            count += star.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Average rating, or NaN if the item has no ratings
+     */
+    public double getAverageRating(String menuItemId) {
+        ItemCounters item = counters.get(menuItemId);
+        if (item == null) {
+            return Double.NaN;
+        }
+        long count = 0;
+        long sum = 0;
+        for (int i = 0; i < item.stars.length; i++) {
+            long n = item.stars[i].sum();
+            count += n;
+            sum += n * (i + 1);
+        }
+        return count > 0 ? (double) sum / count : Double.NaN;
+    }
+
+    /**
+     * Display stats for an item (avg, count, mean square for stddev)
+     */
+    public MenuItemRatingStats getStats(String menuItemId) {
+        ItemCounters item = counters.get(menuItemId);
+        long count = 0;
+        long sum = 0;
+        long sumOfSquares = 0;
+        if (item != null) {
+            for (int i = 0; i < item.stars.length; i++) {
+                long n = item.stars[i].sum();
+                count += n;
+                sum += n * (i + 1);
+                sumOfSquares += n * (i + 1) * (i + 1);
+            }
+        }
+        return MenuItemRatingStats.builder()
+            .menuItemId(menuItemId)
+            .averageRating(count > 0 ? (double) sum / count : null)
+            .ratingCount(count)
+            .averageSquaredRating(count > 0 ? (double) sumOfSquares / count : null)
+            .build();
+    }
+
+    /**
+     * Drop the counters of deleted menu items
+     */
+    public void evict(Collection<String> menuItemIds) {
+        menuItemIds.forEach(counters::remove);
+    }
+
+    @EventListener
+    public void onMenuChanged(MenuChangedEvent event) {
+        evict(event.deletedIds());
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.counters.flush-ms:30000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Write changed histograms to menu_item_rating_stats
+     */
+    public synchronized void flush() {
+        List<MenuItemRatingHistogram> changed = new ArrayList<>();
+        for (Map.Entry<String, ItemCounters> entry : counters.entrySet()) {
+            ItemCounters item = entry.getValue();
+            if (!item.dirty) continue;
+            // Clear before reading so a concurrent write marks the item again
+            item.dirty = false;
+            changed.add(MenuItemRatingHistogram.builder()
+                .menuItemId(entry.getKey())
+                .count1(item.stars[0].sum())
+                .count2(item.stars[1].sum())
+                .count3(item.stars[2].sum())
+                .count4(item.stars[3].sum())
+                .count5(item.stars[4].sum())
+                .build());
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            histogramRepository.saveAll(changed);
+            log.debug("Flushed rating counters for {} menu items", changed.size());
+        } catch (Exception e) {
+            changed.forEach(row -> {
+                ItemCounters item = counters.get(row.getMenuItemId());
+                if (item != null) {
+                    item.dirty = true;
+                }
+            });
+            log.error("Error flushing rating counters: {}", e.getMessage());
+        }
+    }
+
+    private ItemCounters countersFor(String menuItemId) {
+        return counters.computeIfAbsent(menuItemId, id -> new ItemCounters());
+    }
+
+    private static final class ItemCounters {
+        final LongAdder[] stars = {
+            new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()
+        };
+        volatile boolean dirty;
+    }
+}
@@ -0,0 +1,117 @@
+package com.umassdining.service;
+
+import com.umassdining.enums.MealType;
+import com.umassdining.repository.UserPreferenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scores every user with preferences ahead of the meal windows and stores the
+ * ranked lists in {@link RecommendationStore}, so request-time work is a lookup.
+ *
+ * Runs after the morning scrape and shortly before the 10:30 and 16:30
+ * cutoffs, each time for all of today's meal types, so lists also pick up
+ * rating changes made during the day.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationPrecomputeJob {
+
+    private final RecommendationService recommendationService;
+    private final MenuSnapshotStore menuSnapshotStore;
+    private final UserPreferenceRepository userPreferenceRepository;
+    private final RecommendationStore recommendationStore;
+
+    @Value("${recommendations.precompute.chunk-size:256}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${recommendations.precompute.cron:0 20 6,10,16 * * *}")
+    public void scheduledPrecompute() {
+        log.info("Starting scheduled recommendation precompute");
+        precomputeAll();
+    }
+
+    /**
+     * Drop stored lists once their date or meal is over
+     */
+    @Scheduled(cron = "${recommendations.store.prune-cron:0 31 0,10,16 * * *}")
+    public void pruneStore() {
+        recommendationStore.prune(LocalDate.now(), recommendationService.getCurrentMealType());
+    }
+
+    /**
+     * Precompute today's lists for every meal type and every user with preferences
+     */
+    public int precomputeAll() {
+        MenuSnapshot snapshot = menuSnapshotStore.get(LocalDate.now());
+        if (snapshot.isEmpty()) {
+            log.info("No menu for today, skipping recommendation precompute");
+            return 0;
+        }
+
+        List<String> userIds = userPreferenceRepository.findAllUserIds();
+        long start = System.currentTimeMillis();
+        int stored = 0;
+
+        // A pool per run: the job runs a few times a day, so there is nothing to keep alive in between
+        try (ExecutorService executor =
+                 Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1))) {
+            for (MealType mealType : MealType.values()) {
+                RecommendationService.MealCandidates candidates =
+                    recommendationService.loadCandidates(snapshot, mealType);
+                if (!candidates.items().isEmpty()) {
+                    stored += precompute(executor, userIds, candidates);
+                }
+            }
+        }
+
+        log.info("Precomputed {} recommendation lists for {} users in {} ms",
+            stored, userIds.size(), System.currentTimeMillis() - start);
+        return stored;
+    }
+
+    private int precompute(ExecutorService executor, List<String> userIds,
+                           RecommendationService.MealCandidates candidates) {
+        AtomicInteger stored = new AtomicInteger();
+        List<Future<?>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < userIds.size(); from += chunkSize) {
+            List<String> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+            chunks.add(executor.submit(() -> {
+                for (String userId : chunk) {
+                    try {
+                        if (recommendationService.precompute(userId, candidates)) {
+                            stored.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        log.error("Error precomputing recommendations for {}: {}", userId, e.getMessage());
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Recommendation precompute chunk failed: {}", e.getMessage());
+            }
+        }
+        return stored.get();
+    }
+}
@@ -1,105 +1,157 @@
 package com.umassdining.service;
 
-import com.umassdining.model.*;
 import com.umassdining.enums.MealType;
-import com.umassdining.repository.*;
 import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class RecommendationService {
 
-    private final MenuItemRepository menuItemRepository;
-    private final UserPreferenceRepository userPreferenceRepository;
-    private final MealRatingRepository mealRatingRepository;
+    private final MenuSnapshotStore menuSnapshotStore;
+    private final PreferenceMatcherCache preferenceMatcherCache;
+    private final RatingCounters ratingCounters;
+    private final PopularRecommendationCache popularRecommendationCache;
+    private final UserTasteProfileCache userTasteProfileCache;
+    private final RecommendationStore recommendationStore;
+    private final ItemSimilarityEngine itemSimilarityEngine;
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
 
     /**
-     * Get personalized recommendations for a user
+     * Get personalized recommendations for a user for the current meal
      */
     public List<RecommendationDTO> getRecommendations(String userId) {
-        // Get user preferences
-        Optional<UserPreference> prefsOpt = userPreferenceRepository.findByUserId(userId);
-        
+        return getRecommendations(userId, null, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Get the top recommendations for a user; mealType defaults to the current meal
+     */
+    public List<RecommendationDTO> getRecommendations(String userId, MealType mealType, int limit) {
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+
         // Get today's menu
-        List<MenuItem> todaysMenu = menuItemRepository.findByMenuDate(LocalDate.now());
+        MenuSnapshot todaysMenu = menuSnapshotStore.get(LocalDate.now());
         
         if (todaysMenu.isEmpty()) {
             return Collections.emptyList();
         }
 
-        // Get current meal type based on time
-        MealType currentMealType = getCurrentMealType();
-        
-        // Filter by current meal type
-        List<MenuItem> relevantItems = todaysMenu.stream()
-            .filter(item -> item.getMealType() == currentMealType)
-            .collect(Collectors.toList());
-
-        if (prefsOpt.isEmpty()) {
-            // No preferences, return popular items
-            return getPopularItems(relevantItems);
+        // Get requested meal type, or the current one based on time
+        MealType currentMealType = mealType != null ? mealType : getCurrentMealType();
+
+        // Serve the precomputed list when the batch job or an earlier request stored one
+        if (userId != null) {
+            Optional<List<RecommendationDTO>> stored =
+                recommendationStore.lookup(userId, todaysMenu, currentMealType, k);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+        }
+
+        // Get the user's compiled preferences; the stamp comes first so a concurrent write voids the stored list
+        long stamp = recommendationStore.stamp();
+        Optional<PreferenceMatcher> matcherOpt = preferenceMatcherCache.get(userId);
+
+        if (matcherOpt.isEmpty()) {
+            // No preferences, return popular items shared by every guest
+            return popularRecommendationCache.get(todaysMenu, currentMealType, k, () ->
+                getPopularItems(loadCandidates(todaysMenu, currentMealType).items(), MAX_LIMIT));
         }
 
-        UserPreference prefs = prefsOpt.get();
+        MealCandidates candidates = loadCandidates(todaysMenu, currentMealType);
+        List<RecommendationDTO> ranked = rankForUser(userId, matcherOpt.get(), candidates, k);
+        recommendationStore.put(userId, stamp, todaysMenu, currentMealType, k, ranked);
+        return ranked;
+    }
+
+    /**
+     * Load the items for one meal, shared by every user scored against it
+     */
+    public MealCandidates loadCandidates(MenuSnapshot snapshot, MealType mealType) {
+        return new MealCandidates(snapshot, mealType, snapshot.toItems(snapshot.mealTypePositions(mealType)));
+    }
+
+    /**
+     * Score a user against prepared candidates and store the ranked list; false if the user has no preferences
+     */
+    public boolean precompute(String userId, MealCandidates candidates) {
+        long stamp = recommendationStore.stamp();
+        Optional<PreferenceMatcher> matcherOpt = preferenceMatcherCache.get(userId);
+        if (matcherOpt.isEmpty()) {
+            return false;
+        }
+        List<RecommendationDTO> ranked = rankForUser(userId, matcherOpt.get(), candidates, MAX_LIMIT);
+        recommendationStore.put(userId, stamp, candidates.snapshot(), candidates.mealType(), MAX_LIMIT, ranked);
+        return true;
+    }
+
+    /**
+     * Rank the best k candidates for a user
+     */
+    private List<RecommendationDTO> rankForUser(String userId, PreferenceMatcher matcher,
+                                                MealCandidates candidates, int k) {
+        PreferenceMatcher.SnapshotMatcher prefs = matcher.forSnapshot(candidates.snapshot());
+        long[] scratch = matcher.newScratch();
+        UserTasteProfile tasteProfile = userTasteProfileCache.get(userId);
+        ItemSimilarityEngine.UserView similarDishes = itemSimilarityEngine.forUser(userId);
+        List<MenuSnapshot.Item> items = candidates.items();
         
-        // Score each menu item
-        List<ScoredItem> scoredItems = relevantItems.stream()
-            .map(item -> new ScoredItem(item, calculateScore(item, prefs, userId)))
-            .sorted(Comparator.comparingDouble(ScoredItem::score).reversed())
-            .limit(10)
-            .collect(Collectors.toList());
-
-        return scoredItems.stream()
-            .map(si -> toRecommendationDTO(si.item(), si.score()))
-            .collect(Collectors.toList());
+        // Score each menu item, keeping only the best
+        TopKSelector topK = new TopKSelector(k);
+        for (int i = 0; i < items.size(); i++) {
+            MenuSnapshot.Item item = items.get(i);
+            topK.offer(i, calculateScore(item, prefs, tasteProfile, similarDishes, scratch));
+        }
+
+        return toRecommendationDTOs(items, topK);
     }
 
     /**
      * Calculate recommendation score for an item
      */
-    private double calculateScore(MenuItem item, UserPreference prefs, String userId) {
+    double calculateScore(MenuSnapshot.Item item, PreferenceMatcher.SnapshotMatcher prefs,
+                          UserTasteProfile tasteProfile, ItemSimilarityEngine.UserView similarDishes,
+                          long[] scratch) {
         double score = 50.0; // Base score
 
-        // Dietary preference matching (+20 points)
-        if (prefs.getDietaryPreferences() != null && item.getTags() != null) {
-            long matches = prefs.getDietaryPreferences().stream()
-                .filter(pref -> item.getTags().stream()
-                    .anyMatch(tag -> tag.toLowerCase().contains(pref.toLowerCase())))
-                .count();
-            score += matches * 10;
-        }
+        // Dietary preference matching (+10 points each)
+        score += prefs.countDietaryMatches(item) * 10;
 
         // Disliked ingredients (-30 points each)
-        if (prefs.getDislikedIngredients() != null && item.getDescription() != null) {
-            long dislikes = prefs.getDislikedIngredients().stream()
-                .filter(ing -> item.getDescription().toLowerCase().contains(ing.toLowerCase()) ||
-                              item.getName().toLowerCase().contains(ing.toLowerCase()))
-                .count();
-            score -= dislikes * 30;
-        }
+        score -= prefs.countDislikedIngredients(item, scratch) * 30;
 
         // Favorite dining halls (+15 points)
-        if (prefs.getFavoriteHalls() != null && 
-            prefs.getFavoriteHalls().contains(item.getDiningHallId())) {
+        if (prefs.isFavoriteHall(item)) {
             score += 15;
         }
 
         // User's past ratings (+/- based on similar items)
-        Double avgRating = getUserAverageRatingForCategory(userId, item.getCategory());
-        if (avgRating != null) {
+        double avgRating = tasteProfile.getAverageRating(item.getCategory());
+        if (!Double.isNaN(avgRating)) {
             score += (avgRating - 3) * 10; // Adjust based on how user rates this category
         }
 
+        // Users who liked this also liked (+/- 10 points)
+        double similarScore = similarDishes.score(item.getNameLower());
+        if (!Double.isNaN(similarScore)) {
+            score += similarScore * 5;
+        }
+
         // Item's overall rating
-        Double itemRating = mealRatingRepository.getAverageRatingForMenuItem(item.getId());
-        if (itemRating != null) {
+        double itemRating = ratingCounters.getAverageRating(item.getId());
+        if (!Double.isNaN(itemRating)) {
             score += itemRating * 5;
         }
 
@@ -107,39 +159,39 @@ public class RecommendationService {
     }
 
     /**
-     * Get user's average rating for a category
+     * Get popular items when no preferences are set
      */
-    private Double getUserAverageRatingForCategory(String userId, String category) {
-        List<MealRating> userRatings = mealRatingRepository.findByUserId(userId);
-        
-        return userRatings.stream()
-            .filter(r -> r.getMenuItem() != null && 
-                        category.equals(r.getMenuItem().getCategory()))
-            .mapToInt(MealRating::getRating)
-            .average()
-            .orElse(0);
+    private List<RecommendationDTO> getPopularItems(List<MenuSnapshot.Item> items, int k) {
+        TopKSelector topK = new TopKSelector(k);
+        for (int i = 0; i < items.size(); i++) {
+            String id = items.get(i).getId();
+            double rating = ratingCounters.getAverageRating(id);
+            long count = ratingCounters.getCount(id);
+            topK.offer(i, (!Double.isNaN(rating) ? rating * 10 : 50) + (count * 2));
+        }
+
+        return toRecommendationDTOs(items, topK);
     }
 
     /**
-     * Get popular items when no preferences are set
+     * Build DTOs for the selected winners only, best first
      */
-    private List<RecommendationDTO> getPopularItems(List<MenuItem> items) {
-        return items.stream()
-            .map(item -> {
-                Double rating = mealRatingRepository.getAverageRatingForMenuItem(item.getId());
-                long count = mealRatingRepository.countByMenuItemId(item.getId());
-                double score = (rating != null ? rating * 10 : 50) + (count * 2);
-                return toRecommendationDTO(item, score);
-            })
-            .sorted(Comparator.comparingDouble(RecommendationDTO::getScore).reversed())
-            .limit(10)
-            .collect(Collectors.toList());
+    private List<RecommendationDTO> toRecommendationDTOs(List<MenuSnapshot.Item> items, TopKSelector topK) {
+        int[] indices = new int[topK.size()];
+        double[] scores = new double[topK.size()];
+        int count = topK.drainDescending(indices, scores);
+
+        List<RecommendationDTO> recommendations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recommendations.add(toRecommendationDTO(items.get(indices[i]), scores[i]));
+        }
+        return recommendations;
     }
 
     /**
      * Determine current meal type based on time
      */
-    private MealType getCurrentMealType() {
+    public MealType getCurrentMealType() {
         LocalTime now = LocalTime.now();
         
         if (now.isBefore(LocalTime.of(10, 30))) {
@@ -154,13 +206,13 @@ public class RecommendationService {
     /**
      * Convert to DTO
      */
-    private RecommendationDTO toRecommendationDTO(MenuItem item, double score) {
+    private RecommendationDTO toRecommendationDTO(MenuSnapshot.Item item, double score) {
         return RecommendationDTO.builder()
             .id(item.getId())
             .name(item.getName())
             .description(item.getDescription())
             .diningHallId(item.getDiningHallId())
-            .diningHallName(item.getDiningHall() != null ? item.getDiningHall().getName() : null)
+            .diningHallName(item.getDiningHallName())
             .mealType(item.getMealType().name().toLowerCase())
             .category(item.getCategory())
             .calories(item.getCalories())
@@ -181,6 +233,8 @@ public class RecommendationService {
         return "Available option";
     }
 
-    // Helper record for scoring
-    private record ScoredItem(MenuItem item, double score) {}
+    /**
+     * One meal's candidate items
+     */
+    public record MealCandidates(MenuSnapshot snapshot, MealType mealType, List<MenuSnapshot.Item> items) {}
 }
@@ -0,0 +1,118 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.util.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process store of ranked recommendation lists per user and meal type.
+ *
+ * Lists are tied to the menu snapshot version they were scored against, so a
+ * new scrape makes them stale without an explicit purge. A user's lists are
+ * dropped when that user writes a rating or preference, and every list is put
+ * with the {@link #stamp} taken before its inputs were read: a put that
+ * started before the user's latest invalidation is rejected, so a slow
+ * computation cannot bring back scores from the old preferences. Lists for
+ * past dates and meals are removed by {@link #prune}.
+ */
+@Component
+public class RecommendationStore {
+
+    private final Map<String, UserLists> lists = new ConcurrentHashMap<>();
+
+    private final AtomicLong stamps = new AtomicLong();
+
+    // Puts for users without an entry must be newer than this, since pruning forgets invalidations
+    private volatile long prunedThrough;
+
+    /**
+     * Stored top-k for a user, if one at least k long was computed against this snapshot
+     */
+    public Optional<List<RecommendationDTO>> lookup(String userId, MenuSnapshot snapshot, MealType mealType, int k) {
+        UserLists user = lists.get(userId);
+        Ranked ranked = user != null ? user.byMeal.get(mealType) : null;
+        if (ranked == null || ranked.snapshotVersion() != snapshot.getVersion() || ranked.limit() < k) {
+            return Optional.empty();
+        }
+        List<RecommendationDTO> items = ranked.items();
+        return Optional.of(items.subList(0, Math.min(k, items.size())));
+    }
+
+    /**
+     * Stamp to pass to {@link #put}; take it before reading the user's preferences and ratings
+     */
+    public long stamp() {
+        return stamps.get();
+    }
+
+    /**
+     * Store a user's ranked list; limit is the k it was ranked for, so shorter lists serve only smaller requests.
+     * Ignored if the user was invalidated after the stamp was taken
+     */
+    public void put(String userId, long stamp, MenuSnapshot snapshot, MealType mealType,
+                    int limit, List<RecommendationDTO> ranked) {
+        Ranked entry = new Ranked(snapshot.getDate(), snapshot.getVersion(), limit, List.copyOf(ranked));
+        lists.compute(userId, (id, user) -> {
+            if (user == null) {
+                if (stamp < prunedThrough) {
+                    return null;
+                }
+                user = new UserLists(0);
+            } else if (stamp < user.invalidatedAt) {
+                return user;
+            }
+            user.byMeal.put(mealType, entry);
+            return user;
+        });
+    }
+
+    /**
+     * Drop a user's lists now and again after commit, so a read racing the write cannot store stale scores
+     */
+    public void invalidate(String userId) {
+        drop(userId);
+        TransactionHooks.afterCommit(() -> drop(userId));
+    }
+
+    /**
+     * Remove lists for dates before today and for today's meals that are already over
+     */
+    public void prune(LocalDate today, MealType currentMeal) {
+        prunedThrough = stamps.get();
+        for (String userId : lists.keySet()) {
+            lists.computeIfPresent(userId, (id, user) -> {
+                user.byMeal.entrySet().removeIf(entry -> entry.getValue().date().isBefore(today)
+                    || entry.getValue().date().equals(today) && entry.getKey().compareTo(currentMeal) < 0);
+                return user.byMeal.isEmpty() ? null : user;
+            });
+        }
+    }
+
+    public int size() {
+        return lists.size();
+    }
+
+    private void drop(String userId) {
+        lists.put(userId, new UserLists(stamps.incrementAndGet()));
+    }
+
+    // Mutated only inside the lists map's per-key lock
+    private static final class UserLists {
+        final long invalidatedAt;
+        final Map<MealType, Ranked> byMeal = new ConcurrentHashMap<>();
+
+        UserLists(long invalidatedAt) {
+            this.invalidatedAt = invalidatedAt;
+        }
+    }
+
+    private record Ranked(LocalDate date, long snapshotVersion, int limit, List<RecommendationDTO> items) {}
+}
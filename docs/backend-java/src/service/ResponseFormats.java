@@ -0,0 +1,108 @@
+package com.umassdining.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire formats a client can ask for with Accept, each with an ObjectMapper
+ * carrying the web mapper's settings, so every format has the same property
+ * names and shapes as the JSON responses.
+ *
+ * The binary formats dictionary-encode repeated strings within a response:
+ * CBOR with stringref tags and Smile with shared names and values, so hall
+ * names, categories and tags are written once and referenced after that.
+ */
+@Component
+public class ResponseFormats {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON, ""),
+        CBOR(MediaType.APPLICATION_CBOR, "-cbor"),
+        SMILE(ResponseFormats.SMILE, "-smile");
+
+        private final MediaType mediaType;
+        private final String etagSuffix;
+
+        Format(MediaType mediaType, String etagSuffix) {
+            this.mediaType = mediaType;
+            this.etagSuffix = etagSuffix;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Appended to ETags, since each format is a different representation
+         */
+        public String getEtagSuffix() {
+            return etagSuffix;
+        }
+    }
+
+    private final Map<Format, ObjectMapper> mappers = new EnumMap<>(Format.class);
+
+    public ResponseFormats(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        mappers.put(Format.JSON, objectMapper);
+        mappers.put(Format.CBOR, builder.factory(CBORFactory.builder()
+            .enable(CBORGenerator.Feature.STRINGREF)
+            .build()).build());
+        mappers.put(Format.SMILE, builder.factory(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build()).build());
+    }
+
+    public ObjectMapper mapper(Format format) {
+        return mappers.get(format);
+    }
+
+    /**
+     * Format with the highest quality in an Accept header; JSON when absent,
+     * unparseable, a wildcard wins, or nothing binary is acceptable
+     */
+    public static Format negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Format.JSON;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Format.JSON;
+        }
+        Format best = Format.JSON;
+        double bestQuality = -1;
+        for (MediaType type : types) {
+            double quality = type.getQualityValue();
+            if (quality <= bestQuality || quality <= 0) {
+                continue;
+            }
+            for (Format format : Format.values()) {
+                MediaType candidate = format.getMediaType();
+                // Only an exact binary type opts in; */* and application/* keep JSON
+                if (type.isWildcardType() || type.isWildcardSubtype()
+                        ? format == Format.JSON && type.includes(candidate)
+                        : type.isCompatibleWith(candidate)) {
+                    best = format;
+                    bestQuality = quality;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -1,111 +1,169 @@
 package com.umassdining.service;
 
+import com.umassdining.enums.MealType;
 import com.umassdining.model.MenuItem;
-import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.model.ScrapePageState;
+import com.umassdining.repository.ScrapePageStateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ScrapingService {
 
-    private final MenuItemRepository menuItemRepository;
+    private final MenuDiffEngine menuDiffEngine;
+    private final PageFetcher pageFetcher;
+    private final ScrapePageStateRepository pageStateRepository;
+    private final MenuTextClassifier classifier;
 
-    private static final Map<String, String> DINING_HALLS = Map.of(
-        "worcester", "https://umassdining.com/locations-menus/worcester",
-        "franklin", "https://umassdining.com/locations-menus/franklin",
-        "berkshire", "https://umassdining.com/locations-menus/berkshire",
-        "hampshire", "https://umassdining.com/locations-menus/hampshire"
-    );
+    // Overridable so the scraper can be pointed at a local stub serving recorded pages
+    @Value("${scraping.umass.base-url:https://umassdining.com/locations-menus}")
+    private String baseUrl;
 
-    private static final List<Pattern> FOOD_PATTERNS = Arrays.asList(
-        Pattern.compile("\\b(chicken|beef|pork|fish|salmon|tofu|turkey)\\b", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\b(pizza|pasta|burger|sandwich|wrap|salad|soup|rice|curry)\\b", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\b(eggs?|pancakes?|waffles?|oatmeal|bacon)\\b", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\b(grilled|roasted|baked|fried|steamed)\\b", Pattern.CASE_INSENSITIVE)
-    );
-
-    private static final List<String> MEAT_KEYWORDS = Arrays.asList(
-        "beef", "chicken", "pork", "bacon", "ham", "sausage", "pepperoni",
-        "turkey", "lamb", "steak", "meatball", "prosciutto", "salami"
-    );
-
-    private static final List<String> SEAFOOD_KEYWORDS = Arrays.asList(
-        "fish", "salmon", "tuna", "shrimp", "crab", "lobster", "clam"
-    );
-
-    private static final List<String> DAIRY_KEYWORDS = Arrays.asList(
-        "milk", "cheese", "butter", "cream", "yogurt", "mozzarella", "cheddar"
-    );
+    private static final List<String> HALL_IDS = List.of("worcester", "franklin", "berkshire", "hampshire");
 
     /**
-     * Scheduled scraping job - runs daily at 6 AM
+     * Scheduled scraping job - runs every 15 minutes; unchanged pages cost one conditional request
      */
-    @Scheduled(cron = "${scraping.schedule.cron:0 0 6 * * *}")
+    @Scheduled(cron = "${scraping.schedule.cron:0 */15 * * * *}")
     public void scheduledScrape() {
         log.info("Starting scheduled menu scrape");
         scrapeAllHalls();
     }
 
     /**
-     * Scrape all dining halls
+     * Scrape all dining halls, returning the items that were new
+     *
+     * Each page is fetched and parsed on its own virtual thread, with
+     * politeness left to the fetcher's per-host rate limit, so the scrape
+     * takes about as long as the slowest page. A hall that fails is logged
+     * and skipped without affecting the others.
+     *
+     * Pages are requested with the ETag and Last-Modified seen last time and
+     * hashed on arrival; a 304 or an unchanged hash skips parsing and
+     * persisting for that hall, so mid-day corrections are picked up while
+     * repeat runs stay cheap. Changed halls are diffed against the stored
+     * menu, so unchanged dishes keep their ids and ratings.
      */
     public List<MenuItem> scrapeAllHalls() {
-        List<MenuItem> allItems = new ArrayList<>();
         LocalDate today = LocalDate.now();
 
-        // Check if already scraped today
-        if (menuItemRepository.existsByMenuDate(today)) {
-            log.info("Menu already exists for today, skipping scrape");
-            return allItems;
+        List<ScrapeTask> tasks = new ArrayList<>();
+        for (String hallId : HALL_IDS) {
+            tasks.add(new ScrapeTask(hallId, baseUrl + "/" + hallId, today));
+        }
+        Map<String, ScrapePageState> states = new HashMap<>();
+        for (ScrapePageState state : pageStateRepository.findAllById(tasks.stream().map(ScrapeTask::url).toList())) {
+            states.put(state.getUrl(), state);
         }
 
-        for (Map.Entry<String, String> hall : DINING_HALLS.entrySet()) {
-            try {
-                List<MenuItem> items = scrapeHall(hall.getKey(), hall.getValue(), today);
-                allItems.addAll(items);
-                log.info("Scraped {} items from {}", items.size(), hall.getKey());
-                
-                // Rate limiting
-                Thread.sleep(2000);
-            } catch (Exception e) {
-                log.error("Error scraping {}: {}", hall.getKey(), e.getMessage());
+        List<HallScrape> scrapes = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<ScrapeTask, Future<HallScrape>> results = new LinkedHashMap<>();
+            for (ScrapeTask task : tasks) {
+                results.put(task, executor.submit(() -> scrapeHall(task, states.get(task.url()))));
+            }
+            for (Map.Entry<ScrapeTask, Future<HallScrape>> result : results.entrySet()) {
+                String hallId = result.getKey().hallId();
+                try {
+                    HallScrape scrape = result.getValue().get();
+                    scrapes.add(scrape);
+                    if (scrape.items() == null) {
+                        log.info("Menu unchanged for {}", hallId);
+                    } else {
+                        log.info("Scraped {} items from {}", scrape.items().size(), hallId);
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Error scraping {}: {}", hallId, e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Scrape interrupted, keeping {} pages scraped so far", scrapes.size());
+        }
+        log.info("Scraped {} pages in {} ms", tasks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        List<String> changedHalls = new ArrayList<>();
+        List<MenuItem> scraped = new ArrayList<>();
+        for (HallScrape scrape : scrapes) {
+            if (scrape.items() == null) continue;
+            // A changed page with nothing recognizable is more likely a layout change than an empty menu
+            if (scrape.items().isEmpty()) {
+                log.warn("No items found on changed page for {}, keeping its stored menu", scrape.task().hallId());
+                continue;
             }
+            changedHalls.add(scrape.task().hallId());
+            scraped.addAll(scrape.items());
         }
+        // Snapshots and caches are patched from the diff's change event once it commits
+        MenuDiffEngine.MenuDiff diff = menuDiffEngine.apply(today, changedHalls, scraped);
+        // Only remember a page once its items are saved, so a failed save is retried next run
+        pageStateRepository.saveAll(scrapes.stream().map(HallScrape::state).toList());
+        return diff.inserts();
+    }
 
-        if (!allItems.isEmpty()) {
-            menuItemRepository.saveAll(allItems);
-            log.info("Saved {} total menu items", allItems.size());
+    /**
+     * Fetch one page conditionally and parse it only if its content changed
+     */
+    private HallScrape scrapeHall(ScrapeTask task, ScrapePageState previous)
+            throws IOException, InterruptedException {
+        ScrapePageState state = previous != null ? previous
+            : ScrapePageState.builder().url(task.url()).build();
+        // Validators and hash only vouch for the date they were scraped for
+        if (!task.date().equals(state.getMenuDate())) {
+            state.setEtag(null);
+            state.setLastModified(null);
+            state.setContentHash(null);
+            state.setMenuDate(task.date());
         }
+        LocalDateTime now = LocalDateTime.now();
+        state.setCheckedAt(now);
 
-        return allItems;
+        PageFetcher.Page page = pageFetcher.fetchIfChanged(task.url(), state.getEtag(), state.getLastModified());
+        if (page.notModified()) {
+            return new HallScrape(task, null, state);
+        }
+        state.setEtag(page.etag());
+        state.setLastModified(page.lastModified());
+        // A lexicon edit changes every hash, so the next run reclassifies all pages
+        String hash = sha256(classifier.getVersion(), page.body());
+        if (hash.equals(state.getContentHash())) {
+            return new HallScrape(task, null, state);
+        }
+        state.setContentHash(hash);
+        state.setChangedAt(now);
+        return new HallScrape(task, parseHall(page.parse(task.url()), task.hallId(), task.date()), state);
     }
 
     /**
-     * Scrape a single dining hall
+     * Parse a dining hall page into menu items, classifying each element in one lexicon scan
      */
-    private List<MenuItem> scrapeHall(String hallId, String url, LocalDate date) throws IOException {
+    List<MenuItem> parseHall(Document doc, String hallId, LocalDate date) {
         List<MenuItem> items = new ArrayList<>();
         Set<String> seen = new HashSet<>();
 
-        Document doc = Jsoup.connect(url)
-            .userAgent("UMass Dining Recommendation Bot/1.0")
-            .timeout(30000)
-            .get();
-
-        String currentMeal = "dinner";
+        MealType currentMeal = MealType.DINNER;
         String currentCategory = "Entrees";
 
         // Parse menu sections
@@ -113,28 +171,22 @@ public class ScrapingService {
 
         for (Element element : sections) {
             String text = element.text().trim();
+            MenuTextClassifier.Classification classification = classifier.classify(text);
 
-            // Detect meal type
-            if (text.toLowerCase().contains("breakfast")) currentMeal = "breakfast";
-            else if (text.toLowerCase().contains("lunch")) currentMeal = "lunch";
-            else if (text.toLowerCase().contains("dinner")) currentMeal = "dinner";
-
-            // Detect category
-            currentCategory = detectCategory(text, currentCategory);
-
-            // Check if this looks like a food item
-            if (isLikelyFoodItem(text)) {
-                String key = hallId + "-" + currentMeal + "-" + text.toLowerCase();
-                if (!seen.contains(key)) {
-                    seen.add(key);
+            // Meal and station headers carry over to the items below them
+            if (classification.meal() != null) currentMeal = classification.meal();
+            if (classification.category() != null) currentCategory = classification.category();
 
+            if (classification.food()) {
+                String key = currentMeal + "-" + text.toLowerCase(Locale.ROOT);
+                if (seen.add(key)) {
                     MenuItem item = new MenuItem();
                     item.setName(text);
                     item.setDiningHallId(hallId);
-                    item.setMealType(MenuItem.MealType.valueOf(currentMeal.toUpperCase()));
+                    item.setMealType(currentMeal);
                     item.setCategory(currentCategory);
                     item.setMenuDate(date);
-                    item.setTags(inferDietaryTags(text));
+                    item.setTags(classification.tags());
 
                     items.add(item);
                 }
@@ -144,43 +196,25 @@ public class ScrapingService {
         return items;
     }
 
-    private boolean isLikelyFoodItem(String text) {
-        if (text.length() < 4 || text.length() > 80) return false;
-        return FOOD_PATTERNS.stream().anyMatch(p -> p.matcher(text).find());
-    }
-
-    private String detectCategory(String text, String current) {
-        String lower = text.toLowerCase();
-        if (lower.contains("grill")) return "Grill";
-        if (lower.contains("pizza")) return "Pizza";
-        if (lower.contains("pasta") || lower.contains("italian")) return "Pasta";
-        if (lower.contains("salad")) return "Salad Bar";
-        if (lower.contains("deli")) return "Deli";
-        if (lower.contains("dessert") || lower.contains("bakery")) return "Desserts";
-        if (lower.contains("international") || lower.contains("global")) return "Global";
-        return current;
+    private static String sha256(String lexiconVersion, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(lexiconVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private List<String> inferDietaryTags(String text) {
-        List<String> tags = new ArrayList<>();
-        String lower = text.toLowerCase();
-
-        boolean hasMeat = MEAT_KEYWORDS.stream().anyMatch(lower::contains);
-        boolean hasSeafood = SEAFOOD_KEYWORDS.stream().anyMatch(lower::contains);
-        boolean hasDairy = DAIRY_KEYWORDS.stream().anyMatch(lower::contains);
-
-        if (!hasMeat && !hasSeafood) {
-            tags.add("vegetarian");
-            if (!hasDairy && !lower.contains("egg")) {
-                tags.add("vegan");
-                tags.add("dairy-free");
-            }
-        }
+    /**
+     * One page to scrape; halls today, per-meal or per-day pages can be added as more tasks
+     */
+    private record ScrapeTask(String hallId, String url, LocalDate date) {}
 
-        if (lower.contains("gluten-free") || lower.contains("gf")) {
-            tags.add("gluten-free");
-        }
+    /**
+     * Outcome of one page: its parsed items, or null if unchanged, and its state to save
+     */
+    private record HallScrape(ScrapeTask task, List<MenuItem> items, ScrapePageState state) {}
 
-        return tags;
-    }
 }
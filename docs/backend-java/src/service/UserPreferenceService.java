@@ -8,21 +8,22 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class UserPreferenceService {
 
     private final UserPreferenceRepository userPreferenceRepository;
+    private final PreferenceMatcherCache preferenceMatcherCache;
+    private final RecommendationStore recommendationStore;
 
-    public Optional<UserPreferenceDTO> getPreferences(UUID userId) {
+    public Optional<UserPreferenceDTO> getPreferences(String userId) {
         return userPreferenceRepository.findByUserId(userId)
             .map(this::toDTO);
     }
 
     @Transactional
-    public UserPreferenceDTO savePreferences(UUID userId, UserPreferenceDTO dto) {
+    public UserPreferenceDTO savePreferences(String userId, UserPreferenceDTO dto) {
         UserPreference preference = userPreferenceRepository.findByUserId(userId)
             .orElse(new UserPreference());
 
@@ -32,12 +33,20 @@ public class UserPreferenceService {
         preference.setFavoriteHalls(dto.getFavoriteHalls());
 
         UserPreference saved = userPreferenceRepository.save(preference);
+        preferenceMatcherCache.invalidate(userId);
+        recommendationStore.invalidate(userId);
         return toDTO(saved);
     }
 
+    @Transactional
+    public void deletePreferences(String userId) {
+        userPreferenceRepository.deleteByUserId(userId);
+        preferenceMatcherCache.invalidate(userId);
+        recommendationStore.invalidate(userId);
+    }
+
     private UserPreferenceDTO toDTO(UserPreference pref) {
         return UserPreferenceDTO.builder()
-            .userId(pref.getUserId().toString())
             .dietaryPreferences(pref.getDietaryPreferences())
             .dislikedIngredients(pref.getDislikedIngredients())
             .favoriteHalls(pref.getFavoriteHalls())
@@ -0,0 +1,74 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.CategoryRatingSummary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user running rating totals by menu category.
+ *
+ * Each entry is an immutable {sum, count} pair that is replaced atomically on
+ * write, so readers never see a half-applied update.
+ */
+public class UserTasteProfile {
+
+    private static final UserTasteProfile EMPTY = new UserTasteProfile(Map.of());
+
+    private final Map<String, long[]> totals;
+
+    private UserTasteProfile(Map<String, long[]> totals) {
+        this.totals = totals;
+    }
+
+    /**
+     * Build a profile from grouped category totals
+     */
+    public static UserTasteProfile of(List<CategoryRatingSummary> summaries) {
+        Map<String, long[]> totals = new ConcurrentHashMap<>();
+        for (CategoryRatingSummary summary : summaries) {
+            totals.put(summary.getCategory(),
+                new long[] {summary.getRatingSum(), summary.getRatingCount()});
+        }
+        return new UserTasteProfile(totals);
+    }
+
+    /**
+     * Shared profile for anonymous users, never mutated
+     */
+    public static UserTasteProfile empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Average rating the user gave to a category, or NaN if they never rated it
+     */
+    public double getAverageRating(String category) {
+        if (category == null) {
+            return Double.NaN;
+        }
+        long[] entry = totals.get(category);
+        if (entry == null || entry[1] == 0) {
+            return Double.NaN;
+        }
+        return (double) entry[0] / entry[1];
+    }
+
+    /**
+     * Apply a rating write; previousRating is non-null when an existing rating was changed
+     */
+    void apply(String category, int rating, Integer previousRating) {
+        if (category == null || this == EMPTY) {
+            return;
+        }
+        totals.compute(category, (key, entry) -> {
+            long sum = entry != null ? entry[0] : 0;
+            long count = entry != null ? entry[1] : 0;
+            if (previousRating != null && count > 0) {
+                return new long[] {sum - previousRating + rating, count};
+            }
+            return new long[] {sum + rating, count + 1};
+        });
+    }
+}
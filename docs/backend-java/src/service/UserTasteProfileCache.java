@@ -0,0 +1,108 @@
+package com.umassdining.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of per-user taste profiles, kept current by applying each
+ * committed rating instead of reloading.
+ *
+ * A profile loaded while one of the user's ratings is in flight may or may
+ * not include it, so such a load is served but not cached; only loads that
+ * no write overlapped are kept, and later writes are applied to them once.
+ */
+@Component
+public class UserTasteProfileCache {
+
+    private final MealRatingRepository mealRatingRepository;
+    private final Cache<String, UserTasteProfile> profiles;
+    // Users with a rating write or profile load in progress
+    private final Map<String, Activity> activity = new ConcurrentHashMap<>();
+
+    public UserTasteProfileCache(MealRatingRepository mealRatingRepository,
+                                 @Value("${recommendations.taste-profiles.max-entries:10000}") int maxEntries) {
+        this.mealRatingRepository = mealRatingRepository;
+        this.profiles = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    /**
+     * Get a user's taste profile, loading it with one grouped query on first use
+     */
+    public UserTasteProfile get(String userId) {
+        if (userId == null) {
+            return UserTasteProfile.empty();
+        }
+        UserTasteProfile cached = profiles.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long[] epoch = new long[1];
+        activity.compute(userId, (id, state) -> {
+            state = state != null ? state : new Activity();
+            state.loads++;
+            epoch[0] = state.epoch;
+            return state;
+        });
+        UserTasteProfile loaded;
+        try {
+            loaded = UserTasteProfile.of(mealRatingRepository.getCategoryRatingSummaryForUser(userId));
+        } catch (RuntimeException e) {
+            activity.computeIfPresent(userId, (id, state) -> --state.loads == 0 && state.writes == 0 ? null : state);
+            throw e;
+        }
+        activity.computeIfPresent(userId, (id, state) -> {
+            // Checked and cached under the user's lock, so no write can start in between
+            if (state.writes == 0 && state.epoch == epoch[0]) {
+                profiles.put(userId, loaded);
+            }
+            return --state.loads == 0 && state.writes == 0 ? null : state;
+        });
+        return loaded;
+    }
+
+    /**
+     * Mark a rating write by the user as in flight until its transaction completes
+     */
+    public void beginWrite(String userId) {
+        activity.compute(userId, (id, state) -> {
+            state = state != null ? state : new Activity();
+            state.writes++;
+            state.epoch++;
+            return state;
+        });
+        TransactionHooks.afterCompletion(() -> activity.computeIfPresent(userId,
+            (id, state) -> --state.writes == 0 && state.loads == 0 ? null : state));
+    }
+
+    /**
+     * Update a cached profile in place after a rating is written
+     */
+    public void recordRating(String userId, String category, int rating, Integer previousRating) {
+        UserTasteProfile profile = profiles.getIfPresent(userId);
+        if (profile != null) {
+            profile.apply(category, rating, previousRating);
+        }
+    }
+
+    /**
+     * Drop a cached profile so it is rebuilt on next use
+     */
+    public void evict(String userId) {
+        profiles.invalidate(userId);
+    }
+
+    // Guarded by the activity map's per-key lock
+    private static final class Activity {
+        int writes;
+        int loads;
+        long epoch;
+    }
+}
@@ -0,0 +1,81 @@
+package com.umassdining.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.service.ResponseFormats;
+import com.umassdining.util.FieldSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The negotiated binary converters must be the ones Spring picks, not the
+ * defaults it registers on plain mappers.
+ */
+class WebConfigTest {
+
+    private final ResponseFormats responseFormats = responseFormats();
+
+    @Test
+    void binaryConvertersReplaceTheDefaultsInPlace() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(new HttpMessageConverters().getConverters());
+        int cborIndex = indexOf(converters, MappingJackson2CborHttpMessageConverter.class);
+        int smileIndex = indexOf(converters, MappingJackson2SmileHttpMessageConverter.class);
+
+        new WebConfig(responseFormats).extendMessageConverters(converters);
+
+        assertThat(converters).filteredOn(MappingJackson2CborHttpMessageConverter.class::isInstance).hasSize(1);
+        assertThat(converters).filteredOn(MappingJackson2SmileHttpMessageConverter.class::isInstance).hasSize(1);
+        assertThat(((MappingJackson2CborHttpMessageConverter) converters.get(cborIndex)).getObjectMapper())
+            .isSameAs(responseFormats.mapper(ResponseFormats.Format.CBOR));
+        assertThat(((MappingJackson2SmileHttpMessageConverter) converters.get(smileIndex)).getObjectMapper())
+            .isSameAs(responseFormats.mapper(ResponseFormats.Format.SMILE));
+    }
+
+    @Test
+    void cborHonorsSparseFieldsets() throws Exception {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(new HttpMessageConverters().getConverters());
+        new WebConfig(responseFormats).extendMessageConverters(converters);
+        @SuppressWarnings("unchecked")
+        HttpMessageConverter<Object> cbor = (HttpMessageConverter<Object>) converters.stream()
+            .filter(converter -> converter.canWrite(MappingJacksonValue.class, MediaType.APPLICATION_CBOR))
+            .findFirst().orElseThrow();
+
+        MappingJacksonValue value = new MappingJacksonValue(List.of(MenuItemDTO.builder()
+            .id("1").name("Tofu Curry").category("Global").calories(500).build()));
+        value.setFilters(FieldSet.parse(MenuItemDTO.class, "id,name").getFilters());
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        cbor.write(value, MediaType.APPLICATION_CBOR, message);
+
+        JsonNode item = new ObjectMapper(new CBORFactory()).readTree(message.getBodyAsBytes()).get(0);
+        assertThat(item.has("name")).isTrue();
+        assertThat(item.has("category")).isFalse();
+        assertThat(item.has("calories")).isFalse();
+    }
+
+    private static ResponseFormats responseFormats() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfig().sparseFieldsetCustomizer().customize(builder);
+        return new ResponseFormats(builder.build(), builder);
+    }
+
+    private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) return i;
+        }
+        throw new AssertionError(type.getSimpleName() + " is not registered by default");
+    }
+}
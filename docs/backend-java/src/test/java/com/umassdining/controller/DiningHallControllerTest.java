@@ -0,0 +1,70 @@
+package com.umassdining.controller;
+
+import com.umassdining.model.DiningHall;
+import com.umassdining.repository.DiningHallRepository;
+import com.umassdining.service.DiningHallVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Hall ETags depend only on the stored halls, and never hide a missing one.
+ */
+class DiningHallControllerTest {
+
+    private static final DiningHall WORCESTER = DiningHall.builder()
+        .id("worcester").name("Worcester Commons").shortName("Worcester").location("Northeast")
+        .features(List.of("grill")).build();
+
+    private final DiningHallRepository repository = repository();
+    private final MockMvc mvc = MockMvcBuilders
+        .standaloneSetup(new DiningHallController(repository, new DiningHallVersion(repository)))
+        .build();
+
+    @Test
+    void conditionalGetForUnknownHallIsNotFound() throws Exception {
+        mvc.perform(get("/api/dining-halls/nowhere").header(HttpHeaders.IF_NONE_MATCH, "*"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        String etag = mvc.perform(get("/api/dining-halls/worcester"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/api/dining-halls/worcester").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void versionsAgreeAcrossInstancesAndFollowContent() {
+        DiningHallVersion first = new DiningHallVersion(repository);
+        DiningHallVersion second = new DiningHallVersion(repository);
+        assertThat(first.get()).isEqualTo(second.get());
+        assertThat(first.get("worcester")).isEqualTo(second.get("worcester")).isPresent();
+
+        String before = first.get();
+        WORCESTER.setLunchHours("11:00 AM - 3:00 PM");
+        first.bump();
+        assertThat(first.get()).isNotEqualTo(before);
+        WORCESTER.setLunchHours(null);
+    }
+
+    private static DiningHallRepository repository() {
+        DiningHallRepository repository = mock(DiningHallRepository.class);
+        when(repository.findAllWithFeatures()).thenReturn(List.of(WORCESTER));
+        when(repository.findById("worcester")).thenReturn(Optional.of(WORCESTER));
+        return repository;
+    }
+}
@@ -0,0 +1,88 @@
+package com.umassdining.repository;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.model.DiningHall;
+import com.umassdining.model.MenuItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Off PostgreSQL the writer falls back to JDBC batches; items written that
+ * way, across several batches, read back exactly as the entities described them.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "menu.bulk-write.batch-size=2"
+})
+@Import(MenuItemBulkWriter.class)
+class MenuItemBulkWriterTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 16);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MenuItemBulkWriter writer;
+
+    @Autowired
+    private MenuItemRepository repository;
+
+    @Test
+    void batchedItemsAndTagsReadBack() {
+        entityManager.persist(DiningHall.builder()
+            .id("worcester").name("Worcester Dining Commons").shortName("Worcester").location("Northeast").build());
+        entityManager.flush();
+
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(MenuItem.builder()
+                .name("Dish " + i)
+                .diningHallId("worcester")
+                .mealType(MealType.LUNCH)
+                .menuDate(TODAY)
+                .category("Entrees")
+                .calories(i == 0 ? null : 300 + i)
+                .tags(i % 2 == 0 ? List.of("halal", "vegetarian") : List.of())
+                .build());
+        }
+        items.get(4).setName("Chef's \"Special\", Dish 4");
+
+        assertThat(writer.insertAll(items)).isEqualTo(5);
+        assertThat(items).allSatisfy(item -> {
+            assertThat(item.getId()).isNotNull();
+            assertThat(item.getCreatedAt()).isNotNull();
+        });
+
+        List<MenuItemRow> rows = repository.findRowsByMenuDate(TODAY);
+        assertThat(rows).hasSize(5);
+        assertThat(rows).extracting(MenuItemRow::getId)
+            .containsExactlyInAnyOrderElementsOf(items.stream().map(MenuItem::getId).toList());
+        assertThat(rows).allSatisfy(row -> assertThat(row.getDiningHallName()).isEqualTo("Worcester Dining Commons"));
+        assertThat(rows).filteredOn(row -> row.getName().equals("Dish 0")).singleElement()
+            .satisfies(row -> {
+                assertThat(row.getCalories()).isNull();
+                assertThat(row.getTags()).isEqualTo("halal" + MenuItemRow.TAG_SEPARATOR + "vegetarian");
+            });
+        assertThat(rows).filteredOn(row -> row.getName().equals("Dish 1")).singleElement()
+            .satisfies(row -> assertThat(row.getTags()).isNull());
+        assertThat(rows).extracting(MenuItemRow::getName).contains("Chef's \"Special\", Dish 4");
+    }
+
+    @Test
+    void emptyListWritesNothing() {
+        assertThat(writer.insertAll(List.of())).isZero();
+        assertThat(repository.findRowsByMenuDate(TODAY)).isEmpty();
+    }
+}
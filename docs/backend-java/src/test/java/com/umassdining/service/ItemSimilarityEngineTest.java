@@ -0,0 +1,141 @@
+package com.umassdining.service;
+
+import com.umassdining.repository.MealRatingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Incremental refreshes publish the same neighbors as one full build, and
+ * scores match a direct evaluation of the shrunk, centered cosine.
+ */
+class ItemSimilarityEngineTest {
+
+    private static final double SHRINKAGE = 10.0;
+
+    @Test
+    void scoresFromCoRatedDishes() {
+        ItemSimilarityEngine engine = engine(20);
+        engine.recordRating("u1", "Pad Thai", 5);
+        engine.recordRating("u1", "Drunken Noodles", 5);
+        engine.recordRating("u2", "Pad Thai", 4);
+        engine.recordRating("u2", "Drunken Noodles", 5);
+        engine.recordRating("u3", " pad thai ", 5);
+        engine.refresh();
+
+        ItemSimilarityEngine.UserView u3 = engine.forUser("u3");
+        assertThat(u3.score("drunken noodles")).isEqualTo(2.0, within(1e-6));
+        assertThat(u3.score("pad thai")).isNaN();
+        assertThat(engine.forUser("nobody").score("drunken noodles")).isNaN();
+    }
+
+    @Test
+    void matchesBruteForceOnRandomRatings() {
+        Random random = new Random(7);
+        List<Object[]> ratings = randomRatings(random, 12, 8, 60);
+        ItemSimilarityEngine engine = engine(100);
+        Map<String, Map<String, Integer>> byUser = new HashMap<>();
+        for (Object[] rating : ratings) {
+            engine.recordRating((String) rating[0], (String) rating[1], (Integer) rating[2]);
+            byUser.computeIfAbsent((String) rating[0], u -> new HashMap<>()).put((String) rating[1], (Integer) rating[2]);
+        }
+        engine.refresh();
+
+        int scored = 0;
+        for (String user : byUser.keySet()) {
+            for (int d = 0; d < 8; d++) {
+                String dish = "dish " + d;
+                double expected = bruteForceScore(byUser, user, dish);
+                double actual = engine.forUser(user).score(dish);
+                if (Double.isNaN(expected)) {
+                    assertThat(actual).as("%s %s", user, dish).isNaN();
+                } else {
+                    assertThat(actual).as("%s %s", user, dish).isEqualTo(expected, within(1e-5));
+                    scored++;
+                }
+            }
+        }
+        assertThat(scored).isGreaterThan(20);
+    }
+
+    @Test
+    void incrementalRefreshesMatchOneBuild() {
+        Random random = new Random(11);
+        List<Object[]> ratings = randomRatings(random, 15, 10, 120);
+        ItemSimilarityEngine incremental = engine(3);
+        ItemSimilarityEngine batch = engine(3);
+        for (int i = 0; i < ratings.size(); i++) {
+            Object[] rating = ratings.get(i);
+            incremental.recordRating((String) rating[0], (String) rating[1], (Integer) rating[2]);
+            batch.recordRating((String) rating[0], (String) rating[1], (Integer) rating[2]);
+            if (i % 17 == 0) {
+                incremental.refresh();
+            }
+        }
+        incremental.refresh();
+        batch.refresh();
+
+        for (int u = 0; u < 15; u++) {
+            for (int d = 0; d < 10; d++) {
+                // Boxed, so two NaNs compare equal
+                Double expected = batch.forUser("user " + u).score("dish " + d);
+                Double actual = incremental.forUser("user " + u).score("dish " + d);
+                assertThat(actual).as("user %d dish %d", u, d).isEqualTo(expected);
+            }
+        }
+    }
+
+    // Ratings may repeat a (user, dish) pair; the later one replaces the earlier
+    private static List<Object[]> randomRatings(Random random, int users, int dishes, int count) {
+        List<Object[]> ratings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ratings.add(new Object[]{"user " + random.nextInt(users), "dish " + random.nextInt(dishes),
+                1 + random.nextInt(5)});
+        }
+        return ratings;
+    }
+
+    private static double bruteForceScore(Map<String, Map<String, Integer>> byUser, String user, String dish) {
+        double weighted = 0;
+        double totalWeight = 0;
+        for (Map.Entry<String, Integer> rated : byUser.get(user).entrySet()) {
+            String other = rated.getKey();
+            if (other.equals(dish)) continue;
+            double dot = 0;
+            double dishNorm = 0;
+            double otherNorm = 0;
+            int overlap = 0;
+            for (Map<String, Integer> ratings : byUser.values()) {
+                Integer a = ratings.get(dish);
+                Integer b = ratings.get(other);
+                if (a != null) dishNorm += (a - 3.0) * (a - 3.0);
+                if (b != null) otherNorm += (b - 3.0) * (b - 3.0);
+                if (a != null && b != null) {
+                    dot += (a - 3.0) * (b - 3.0);
+                    overlap++;
+                }
+            }
+            if (dot <= 0 || dishNorm == 0 || otherNorm == 0) continue;
+            double similarity = (float) (dot / Math.sqrt(dishNorm * otherNorm) * overlap / (overlap + SHRINKAGE));
+            weighted += similarity * (rated.getValue() - 3.0);
+            totalWeight += similarity;
+        }
+        return totalWeight > 0 ? weighted / totalWeight : Double.NaN;
+    }
+
+    private static ItemSimilarityEngine engine(int neighbors) {
+        ItemSimilarityEngine engine = new ItemSimilarityEngine(mock(MealRatingRepository.class));
+        ReflectionTestUtils.setField(engine, "neighborCount", neighbors);
+        ReflectionTestUtils.setField(engine, "shrinkage", SHRINKAGE);
+        return engine;
+    }
+}
@@ -0,0 +1,165 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MealPlanDTO;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Branch and bound returns the same ranked plans as enumerating every
+ * combination of the meal's items.
+ */
+class MealPlannerServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 16);
+
+    private final MenuSnapshotStore menuSnapshotStore = mock(MenuSnapshotStore.class);
+    private final MealPlannerService planner = planner();
+
+    @Test
+    void matchesBruteForceOnRandomMenus() {
+        Random random = new Random(9);
+        for (int round = 0; round < 150; round++) {
+            List<MenuItemRow> rows = randomMenu(random, 4 + random.nextInt(9));
+            when(menuSnapshotStore.get(DATE)).thenReturn(MenuSnapshot.build(DATE, round, rows));
+            MealPlannerService.Targets targets = new MealPlannerService.Targets(
+                300 + random.nextInt(900),
+                random.nextInt(50),
+                random.nextBoolean() ? null : 40 + random.nextInt(100),
+                random.nextBoolean() ? null : 10 + random.nextInt(40),
+                1 + random.nextInt(4));
+            int limit = 1 + random.nextInt(6);
+
+            List<MealPlanDTO> plans = planner.plan(null, DATE, "worcester", MealType.LUNCH, targets, limit);
+
+            List<int[]> expected = bruteForce(rows, targets, limit);
+            assertThat(plans).as("round %d", round).hasSize(expected.size());
+            for (int i = 0; i < plans.size(); i++) {
+                MealPlanDTO plan = plans.get(i);
+                assertThat(new int[]{plan.getProtein(), plan.getCalories()}).as("round %d plan %d", round, i)
+                    .containsExactly(expected.get(i));
+                assertThat(plan.getItems()).hasSizeLessThanOrEqualTo(targets.maxItems());
+                assertThat(plan.getItems().stream().mapToInt(MenuItemDTO::getCalories).sum())
+                    .isEqualTo(plan.getCalories()).isLessThanOrEqualTo(targets.maxCalories());
+                assertThat(plan.getProtein()).isGreaterThanOrEqualTo(targets.minProtein());
+            }
+        }
+    }
+
+    @Test
+    void itemsWithoutCaloriesOrProteinAreSkipped() {
+        List<MenuItemRow> rows = List.of(
+            row("a", "Grilled Chicken", null, 40, 0, 5),
+            row("b", "Lentil Soup", 250, null, 30, 4),
+            row("c", "Tofu Bowl", 400, 20, 45, 12));
+        when(menuSnapshotStore.get(DATE)).thenReturn(MenuSnapshot.build(DATE, 1, rows));
+
+        List<MealPlanDTO> plans = planner.plan(null, DATE, "worcester", MealType.LUNCH,
+            new MealPlannerService.Targets(800, 0, null, null, 3), 5);
+
+        assertThat(plans).singleElement()
+            .satisfies(plan -> assertThat(plan.getItems()).extracting(MenuItemDTO::getId).containsExactly("c"));
+    }
+
+    @Test
+    void outOfRangeTargetsAreRejected() {
+        assertThatThrownBy(() -> planner.plan(null, DATE, "worcester", MealType.LUNCH,
+            new MealPlannerService.Targets(0, 0, null, null, 3), 5)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> planner.plan(null, DATE, "worcester", MealType.LUNCH,
+            new MealPlannerService.Targets(800, 0, null, null, MealPlannerService.MAX_ITEMS + 1), 5))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    // (protein, calories) of the best plans, best first, from every combination of distinct eligible dishes
+    private static List<int[]> bruteForce(List<MenuItemRow> rows, MealPlannerService.Targets targets, int limit) {
+        List<MenuItemRow> candidates = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (MenuItemRow row : rows) {
+            // A limit cannot be checked against an unknown value; of a repeated dish the first eligible one counts
+            if (row.getCalories() != null && row.getProtein() != null
+                    && row.getCalories() <= targets.maxCalories()
+                    && (targets.maxCarbs() == null || row.getCarbs() != null && row.getCarbs() <= targets.maxCarbs())
+                    && (targets.maxFat() == null || row.getFat() != null && row.getFat() <= targets.maxFat())
+                    && names.add(row.getName().toLowerCase())) {
+                candidates.add(row);
+            }
+        }
+        List<int[]> plans = new ArrayList<>();
+        for (int mask = 1; mask < 1 << candidates.size(); mask++) {
+            if (Integer.bitCount(mask) > targets.maxItems()) continue;
+            int calories = 0, protein = 0, carbs = 0, fat = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                if ((mask & 1 << i) == 0) continue;
+                MenuItemRow row = candidates.get(i);
+                calories += row.getCalories();
+                protein += row.getProtein();
+                carbs += row.getCarbs() != null ? row.getCarbs() : 0;
+                fat += row.getFat() != null ? row.getFat() : 0;
+            }
+            if (calories <= targets.maxCalories() && protein >= targets.minProtein()
+                    && (targets.maxCarbs() == null || carbs <= targets.maxCarbs())
+                    && (targets.maxFat() == null || fat <= targets.maxFat())) {
+                plans.add(new int[]{protein, calories});
+            }
+        }
+        plans.sort(Comparator.comparingInt((int[] p) -> -p[0]).thenComparingInt(p -> p[1]));
+        return plans.subList(0, Math.min(limit, plans.size()));
+    }
+
+    private static List<MenuItemRow> randomMenu(Random random, int size) {
+        List<MenuItemRow> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Some dishes repeat under another station, and some nutrients are missing
+            String name = "Dish " + random.nextInt(size + 2);
+            rows.add(row("item-" + i, name,
+                random.nextInt(10) == 0 ? null : 50 + random.nextInt(650),
+                random.nextInt(10) == 0 ? null : random.nextInt(45),
+                random.nextInt(6) == 0 ? null : random.nextInt(80),
+                random.nextInt(6) == 0 ? null : random.nextInt(30)));
+        }
+        return rows;
+    }
+
+    private static MenuItemRow row(String id, String name, Integer calories, Integer protein, Integer carbs,
+                                   Integer fat) {
+        return MenuItemRow.builder()
+            .id(id)
+            .name(name)
+            .diningHallId("worcester")
+            .mealType(MealType.LUNCH)
+            .menuDate(DATE)
+            .calories(calories)
+            .protein(protein)
+            .carbs(carbs)
+            .fat(fat)
+            .build();
+    }
+
+    private MealPlannerService planner() {
+        PreferenceMatcherCache preferenceMatcherCache = mock(PreferenceMatcherCache.class);
+        when(preferenceMatcherCache.get(any())).thenReturn(Optional.empty());
+        MealPlannerService service = new MealPlannerService(menuSnapshotStore, preferenceMatcherCache,
+            mock(RecommendationService.class));
+        // Generous enough that the search always finishes
+        ReflectionTestUtils.setField(service, "budgetMs", 10_000L);
+        return service;
+    }
+}
@@ -0,0 +1,117 @@
+package com.umassdining.service;
+
+import com.umassdining.enums.MealType;
+import com.umassdining.model.MenuItem;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.repository.MenuItemBulkWriter;
+import com.umassdining.repository.MenuItemRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A rescrape only updates what the page actually says; fields the scraper
+ * does not extract must survive it, and dropped rated items are marked
+ * removed rather than kept on the menu.
+ */
+class MenuDiffEngineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 16);
+
+    @Test
+    void unscrapedFieldsAreKeptAndNotReportedAsUpdates() {
+        MenuItem stored = item("Chicken Tikka", "Global", List.of("contains-gluten"));
+        stored.setDescription("Marinated chicken in a spiced tomato sauce");
+        stored.setCalories(450);
+        stored.setProtein(32);
+        stored.setCarbs(20);
+        stored.setFat(18);
+
+        MenuDiffEngine.MenuDiff diff = MenuDiffEngine.diff(List.of(stored),
+            List.of(item("Chicken Tikka", "Global", List.of("contains-gluten"))));
+
+        assertThat(diff.isEmpty()).isTrue();
+        assertThat(stored.getDescription()).isEqualTo("Marinated chicken in a spiced tomato sauce");
+        assertThat(stored.getCalories()).isEqualTo(450);
+        assertThat(stored.getProtein()).isEqualTo(32);
+        assertThat(stored.getCarbs()).isEqualTo(20);
+        assertThat(stored.getFat()).isEqualTo(18);
+    }
+
+    @Test
+    void scrapedFieldsAreCopiedOn() {
+        MenuItem stored = item("Chicken Tikka", "Grill", List.of());
+        stored.setCalories(450);
+        MenuItem scraped = item("Chicken Tikka", "Global", List.of("contains-gluten"));
+        scraped.setCalories(480);
+
+        MenuDiffEngine.MenuDiff diff = MenuDiffEngine.diff(List.of(stored), List.of(scraped));
+
+        assertThat(diff.updates()).containsExactly(stored);
+        assertThat(stored.getCategory()).isEqualTo("Global");
+        assertThat(stored.getTags()).containsExactly("contains-gluten");
+        assertThat(stored.getCalories()).isEqualTo(480);
+    }
+
+    @Test
+    void droppedRatedItemsAreMarkedRemovedAndUnratedOnesDeleted() {
+        MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+        MealRatingRepository mealRatingRepository = mock(MealRatingRepository.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        MenuDiffEngine engine = new MenuDiffEngine(menuItemRepository, mock(MenuItemBulkWriter.class),
+            mealRatingRepository, eventPublisher);
+        MenuItem rated = item("Chicken Tikka", "Global", List.of());
+        rated.setId("rated");
+        MenuItem unrated = item("Pad Thai", "Global", List.of());
+        unrated.setId("unrated");
+        when(menuItemRepository.findByMenuDateAndDiningHallIdIn(eq(DATE), anyCollection()))
+            .thenReturn(List.of(rated, unrated));
+        when(mealRatingRepository.findRatedMenuItemIds(anyCollection())).thenReturn(Set.of("rated"));
+
+        engine.apply(DATE, List.of("worcester"), List.of(item("Falafel Wrap", "Global", List.of())));
+
+        assertThat(rated.getRemovedAt()).isNotNull();
+        verify(menuItemRepository).deleteAll(List.of(unrated));
+        ArgumentCaptor<MenuChangedEvent> event = ArgumentCaptor.forClass(MenuChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().deletedIds()).containsExactly("unrated");
+        assertThat(event.getValue().removedIds()).containsExactly("rated");
+    }
+
+    @Test
+    void removedItemsStayRemovedUntilListedAgain() {
+        MenuItem removed = item("Chicken Tikka", "Global", List.of());
+        removed.setRemovedAt(LocalDateTime.of(2026, 10, 16, 11, 0));
+
+        assertThat(MenuDiffEngine.diff(List.of(removed), List.of()).isEmpty()).isTrue();
+
+        MenuDiffEngine.MenuDiff diff = MenuDiffEngine.diff(List.of(removed),
+            List.of(item("Chicken Tikka", "Global", List.of())));
+        assertThat(diff.updates()).containsExactly(removed);
+        assertThat(removed.getRemovedAt()).isNull();
+    }
+
+    private static MenuItem item(String name, String category, List<String> tags) {
+        return MenuItem.builder()
+            .name(name)
+            .category(category)
+            .diningHallId("worcester")
+            .mealType(MealType.LUNCH)
+            .menuDate(DATE)
+            .tags(new ArrayList<>(tags))
+            .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.model.DiningHall;
+import com.umassdining.model.MenuItem;
+import com.umassdining.repository.MenuItemBulkWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Menu and recommendation reads cost one SQL statement however many items,
+ * halls and tags there are: rows come from a single projection query with
+ * the hall joined and tags aggregated, and DTOs are built from the snapshot.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({MenuService.class, MenuSnapshotStore.class, MenuSearchIndex.class, MenuItemBulkWriter.class,
+    RecommendationService.class, PopularRecommendationCache.class})
+class MenuReadStatementCountTest {
+
+    private static final int ITEMS_PER_HALL = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private MenuSnapshotStore menuSnapshotStore;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @MockBean
+    private MenuResponseCache menuResponseCache;
+
+    @MockBean
+    private PreferenceMatcherCache preferenceMatcherCache;
+
+    @MockBean
+    private RatingCounters ratingCounters;
+
+    @MockBean
+    private UserTasteProfileCache userTasteProfileCache;
+
+    @MockBean
+    private RecommendationStore recommendationStore;
+
+    @MockBean
+    private ItemSimilarityEngine itemSimilarityEngine;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        for (String hallId : List.of("worcester", "franklin", "berkshire")) {
+            entityManager.persist(DiningHall.builder()
+                .id(hallId)
+                .name(hallId + " Dining Commons")
+                .shortName(hallId)
+                .location("Amherst")
+                .build());
+            for (int i = 0; i < ITEMS_PER_HALL; i++) {
+                entityManager.persist(MenuItem.builder()
+                    .name("Dish " + i)
+                    .diningHallId(hallId)
+                    .mealType(MealType.LUNCH)
+                    .menuDate(today)
+                    .category("Entrees")
+                    .calories(400 + i)
+                    .tags(List.of("vegetarian", "halal"))
+                    .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Snapshots outlive each test's rolled-back data, so start every test from the database
+        menuSnapshotStore.evictBefore(today.plusDays(1));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void todaysMenuIsOneStatement() {
+        List<MenuItemDTO> menu = menuService.getTodaysMenu();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(menu).hasSize(3 * ITEMS_PER_HALL);
+        assertThat(menu).allSatisfy(item -> {
+            assertThat(item.getDiningHallName()).endsWith("Dining Commons");
+            assertThat(item.getTags()).containsExactlyInAnyOrder("vegetarian", "halal");
+        });
+
+        menuService.getTodaysMenu();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void removedItemsAreNotServed() {
+        MenuItem removed = entityManager.getEntityManager()
+            .createQuery("SELECT m FROM MenuItem m WHERE m.name = 'Dish 0'", MenuItem.class)
+            .getResultList().get(0);
+        removed.setRemovedAt(LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<MenuItemDTO> menu = menuService.getTodaysMenu();
+
+        assertThat(menu).hasSize(3 * ITEMS_PER_HALL - 1);
+        assertThat(menu).extracting(MenuItemDTO::getId).doesNotContain(removed.getId());
+    }
+
+    @Test
+    void recommendationMappingIsOneStatement() {
+        List<RecommendationDTO> recommendations = recommendationService.getRecommendations(null, MealType.LUNCH, 10);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(recommendations).hasSize(10);
+        assertThat(recommendations).allSatisfy(recommendation -> {
+            assertThat(recommendation.getDiningHallName()).endsWith("Dining Commons");
+            assertThat(recommendation.getTags()).containsExactlyInAnyOrder("vegetarian", "halal");
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.umassdining.service;
+
+import com.umassdining.config.JacksonConfig;
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.enums.MealType;
+import com.umassdining.util.FieldSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full and fields= bodies are both served from cache, without competing for slots.
+ */
+class MenuResponseCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 16);
+    private static final ResponseFormats.Format JSON = ResponseFormats.Format.JSON;
+
+    private final MenuResponseCache cache = new MenuResponseCache(responseFormats(), 1, 1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<MenuItemDTO>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(MenuItemDTO.builder().id("1").name("Pad Thai").category("Global").build());
+    };
+
+    @Test
+    void fieldsetBodiesAreCachedAndFiltered() {
+        FieldSet fields = FieldSet.parse(MenuItemDTO.class, "name,id");
+
+        MenuResponseCache.Body first = cache.get(DATE, null, MealType.LUNCH, fields, JSON, 1, loader);
+        MenuResponseCache.Body second = cache.get(DATE, null, MealType.LUNCH,
+            FieldSet.parse(MenuItemDTO.class, "id,name"), JSON, 1, loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(new String(first.getBytes(), StandardCharsets.UTF_8))
+            .contains("Pad Thai").doesNotContain("Global");
+    }
+
+    @Test
+    void fieldsetBodiesDoNotEvictFullBodies() {
+        MenuResponseCache.Body full = cache.get(DATE, null, MealType.LUNCH, null, JSON, 1, loader);
+        cache.get(DATE, null, MealType.LUNCH, FieldSet.parse(MenuItemDTO.class, "id"), JSON, 1, loader);
+        cache.get(DATE, null, MealType.LUNCH, FieldSet.parse(MenuItemDTO.class, "name"), JSON, 1, loader);
+
+        assertThat(cache.get(DATE, null, MealType.LUNCH, null, JSON, 1, loader)).isSameAs(full);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void newerVersionRebuilds() {
+        FieldSet fields = FieldSet.parse(MenuItemDTO.class, "id");
+        MenuResponseCache.Body old = cache.get(DATE, null, MealType.LUNCH, fields, JSON, 1, loader);
+
+        MenuResponseCache.Body current = cache.get(DATE, null, MealType.LUNCH, fields, JSON, 2, loader);
+
+        assertThat(current).isNotSameAs(old);
+        assertThat(current.getVersion()).isEqualTo(2);
+    }
+
+    private static ResponseFormats responseFormats() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfig().sparseFieldsetCustomizer().customize(builder);
+        return new ResponseFormats(builder.build(), builder);
+    }
+}
@@ -0,0 +1,106 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemDTO;
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.repository.MenuItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The vocabulary holds exactly the terms of the live segments, typo and
+ * prefix queries expand against it, and results honour every term and filter.
+ */
+class MenuSearchIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final MenuSearchIndex index = index();
+
+    @Test
+    void evictedSegmentsLeaveTheVocabulary() {
+        index.index(MenuSnapshot.build(TODAY.minusDays(1), 1, List.of(row("a", "Shakshuka", TODAY.minusDays(1)))));
+        index.index(MenuSnapshot.build(TODAY, 1, List.of(row("b", "Pad Thai", TODAY))));
+        int withBoth = index.vocabularySize();
+
+        index.evictBefore(TODAY);
+
+        assertThat(index.vocabularySize()).isLessThan(withBoth);
+        assertThat(search("shakshuka")).isEmpty();
+        assertThat(search("shakshka")).isEmpty();
+        assertThat(search("pad thai")).extracting(MenuItemDTO::getId).containsExactly("b");
+    }
+
+    @Test
+    void replacedSegmentKeepsOnlySharedTerms() {
+        index.index(MenuSnapshot.build(TODAY.minusDays(1), 1, List.of(row("a", "Chicken Curry", TODAY.minusDays(1)))));
+        index.index(MenuSnapshot.build(TODAY, 1, List.of(row("b", "Chicken Tenders", TODAY))));
+
+        index.index(MenuSnapshot.build(TODAY, 2, List.of(row("c", "Tofu Scramble", TODAY))));
+
+        assertThat(search("tenders")).isEmpty();
+        assertThat(search("chicken")).extracting(MenuItemDTO::getId).containsExactly("a");
+        assertThat(search("scramble")).extracting(MenuItemDTO::getId).containsExactly("c");
+    }
+
+    @Test
+    void typosAndPrefixesExpand() {
+        index.index(MenuSnapshot.build(TODAY, 1, List.of(
+            row("a", "Broccoli Cheddar Soup", TODAY), row("b", "Grilled Salmon", TODAY))));
+
+        assertThat(search("brocolli")).extracting(MenuItemDTO::getId).containsExactly("a");
+        assertThat(search("grilled sal")).extracting(MenuItemDTO::getId).containsExactly("b");
+        assertThat(search("sal")).extracting(MenuItemDTO::getId).containsExactly("b");
+    }
+
+    @Test
+    void everyTermMustMatchAndNameMatchesRankFirst() {
+        MenuItemRow described = row("a", "Garden Bowl", TODAY);
+        described.setDescription("Quinoa with roasted chickpeas");
+        index.index(MenuSnapshot.build(TODAY, 1, List.of(
+            described, row("b", "Roasted Chickpeas", TODAY), row("c", "Roasted Turkey", TODAY))));
+
+        assertThat(search("roasted chickpeas")).extracting(MenuItemDTO::getId).containsExactly("b", "a");
+        assertThat(search("roasted tofu")).isEmpty();
+    }
+
+    @Test
+    void hallAndMealFiltersApply() {
+        MenuItemRow dinner = row("b", "Chicken Curry", TODAY);
+        dinner.setMealType(MealType.DINNER);
+        MenuItemRow franklin = row("c", "Chicken Curry", TODAY);
+        franklin.setDiningHallId("franklin");
+        index.index(MenuSnapshot.build(TODAY, 1, List.of(row("a", "Chicken Curry", TODAY), dinner, franklin)));
+
+        assertThat(index.search("curry", TODAY, TODAY, "worcester", MealType.LUNCH, 10))
+            .extracting(MenuItemDTO::getId).containsExactly("a");
+        assertThat(index.search("curry", TODAY, TODAY, null, null, 2)).hasSize(2);
+    }
+
+    private List<MenuItemDTO> search(String query) {
+        return index.search(query, TODAY.minusDays(7), TODAY, null, null, 10);
+    }
+
+    private static MenuSearchIndex index() {
+        MenuSearchIndex index = new MenuSearchIndex(mock(MenuItemRepository.class));
+        ReflectionTestUtils.setField(index, "daysBack", 7);
+        return index;
+    }
+
+    private static MenuItemRow row(String id, String name, LocalDate date) {
+        return MenuItemRow.builder()
+            .id(id)
+            .name(name)
+            .diningHallId("worcester")
+            .diningHallName("Worcester")
+            .mealType(MealType.LUNCH)
+            .menuDate(date)
+            .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.model.DiningHall;
+import com.umassdining.repository.DiningHallRepository;
+import com.umassdining.repository.MenuItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Change events patch the held snapshot of their date one at a time, and
+ * inserted rows get their hall names even when the snapshot has none yet.
+ */
+class MenuSnapshotStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final DiningHallRepository diningHallRepository = mock(DiningHallRepository.class);
+    private final MenuSnapshotStore store = store();
+
+    @Test
+    void concurrentChangeEventsAreAllApplied() throws Exception {
+        when(menuItemRepository.findRowsByMenuDate(TODAY)).thenReturn(List.of());
+        long initialVersion = store.get(TODAY).getVersion();
+
+        int events = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < events; i++) {
+                MenuChangedEvent event = new MenuChangedEvent(TODAY, List.of(row("item-" + i)), Set.of());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    store.onMenuChanged(event);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        MenuSnapshot snapshot = store.get(TODAY);
+        assertThat(snapshot.size()).isEqualTo(events);
+        assertThat(snapshot.getVersion()).isEqualTo(store.version(TODAY)).isGreaterThan(initialVersion);
+    }
+
+    @Test
+    void insertsIntoAnEmptySnapshotGetHallNames() {
+        when(menuItemRepository.findRowsByMenuDate(TODAY)).thenReturn(List.of());
+        when(diningHallRepository.findAllById(Set.of("worcester")))
+            .thenReturn(List.of(DiningHall.builder().id("worcester").name("Worcester Commons").build()));
+        assertThat(store.get(TODAY).isEmpty()).isTrue();
+
+        MenuItemRow inserted = row("item-1");
+        inserted.setDiningHallName(null);
+        store.onMenuChanged(new MenuChangedEvent(TODAY, List.of(inserted), Set.of()));
+
+        assertThat(store.get(TODAY).getItem(0).getDiningHallName()).isEqualTo("Worcester Commons");
+    }
+
+    private MenuSnapshotStore store() {
+        MenuSnapshotStore store = new MenuSnapshotStore(menuItemRepository, mock(MenuSearchIndex.class),
+            diningHallRepository);
+        ReflectionTestUtils.setField(store, "daysBack", 7);
+        ReflectionTestUtils.setField(store, "daysAhead", 14);
+        return store;
+    }
+
+    private static MenuItemRow row(String id) {
+        return MenuItemRow.builder()
+            .id(id)
+            .name("Dish " + id)
+            .diningHallId("worcester")
+            .diningHallName("Worcester")
+            .mealType(MealType.LUNCH)
+            .menuDate(TODAY)
+            .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.umassdining.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Whole-word matching against the shipped lexicon: compound dish names are
+ * listed explicitly, short tokens still do not match inside other words.
+ */
+class MenuTextClassifierTest {
+
+    private final MenuTextClassifier classifier = classifier();
+
+    @Test
+    void compoundNamesKeepTheirDietarySignals() {
+        assertThat(classifier.classify("New York Cheesecake").tags())
+            .contains("vegetarian").doesNotContain("vegan");
+        assertThat(classifier.classify("Philly Cheesesteak").tags())
+            .doesNotContain("vegetarian", "vegan");
+        assertThat(classifier.classify("Vanilla Buttercream Cake").tags())
+            .doesNotContain("vegan");
+        assertThat(classifier.classify("Maryland Crabcakes").tags())
+            .contains("contains-shellfish").doesNotContain("vegetarian");
+    }
+
+    @Test
+    void shortTokensStayWholeWord() {
+        assertThat(classifier.classify("Roasted Eggplant Parmesan").tags())
+            .contains("vegetarian");
+        assertThat(classifier.classify("Grilled Eggplant").tags())
+            .contains("vegan");
+        assertThat(classifier.classify("Baked Ham").tags())
+            .doesNotContain("vegetarian");
+        assertThat(classifier.classify("Grilled Hamachi").tags())
+            .doesNotContain("vegetarian", "vegan");
+    }
+
+    @Test
+    void fishNamesRuleOutVegetarian() {
+        assertThat(classifier.classify("Anchovy Pizza").tags())
+            .doesNotContain("vegetarian", "vegan");
+        assertThat(classifier.classify("Caesar Salad with Anchovies").tags())
+            .doesNotContain("vegetarian", "vegan");
+        assertThat(classifier.classify("Blackened Swordfish").tags())
+            .doesNotContain("vegetarian", "vegan");
+    }
+
+    private static MenuTextClassifier classifier() {
+        try {
+            return new MenuTextClassifier(new ClassPathResource("menu-lexicon.txt"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
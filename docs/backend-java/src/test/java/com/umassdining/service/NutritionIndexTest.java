@@ -0,0 +1,125 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.util.Bitmap;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Range conditions include their bounds exactly, never match items without
+ * a value, and sorting puts those items last.
+ */
+class NutritionIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 16);
+
+    // Calories by position; null marks an item without a value
+    private static final Integer[] CALORIES = {600, null, 599, 601, 600, 0, null, 1200};
+
+    private final MenuSnapshot snapshot = snapshot(CALORIES);
+    private final NutritionIndex nutrition = snapshot.getNutrition();
+
+    @Test
+    void boundsAreInclusiveOrExclusiveAsWritten() {
+        assertThat(matching("calories<=600")).containsExactly(0, 2, 4, 5);
+        assertThat(matching("calories<600")).containsExactly(2, 5);
+        assertThat(matching("calories>=600")).containsExactly(0, 3, 4, 7);
+        assertThat(matching("calories>600")).containsExactly(3, 7);
+        assertThat(matching("calories=600")).containsExactly(0, 4);
+        assertThat(matching("calories=0")).containsExactly(5);
+        assertThat(matching("calories<0")).isEmpty();
+    }
+
+    @Test
+    void nullsOnlyMatchNullChecks() {
+        assertThat(matching("calories=null")).containsExactly(1, 6);
+        assertThat(matching("calories!=null")).containsExactly(0, 2, 3, 4, 5, 7);
+        assertThat(matching("calories>=0")).doesNotContain(1, 6);
+        assertThat(matching("protein=null")).hasSize(CALORIES.length);
+    }
+
+    @Test
+    void sortingPutsMissingValuesLast() {
+        Bitmap all = snapshot.allItems();
+        int[] ascending = nutrition.sorted(NutritionIndex.Sort.parse("calories"), all, 100);
+        int[] descending = nutrition.sorted(NutritionIndex.Sort.parse("calories_desc"), all, 100);
+
+        assertThat(ascending).startsWith(5, 2).endsWith(7, 1, 6);
+        assertThat(descending).startsWith(7, 3).endsWith(5, 1, 6);
+        assertThat(nutrition.sorted(NutritionIndex.Sort.parse("calories_desc"), all, 2)).containsExactly(7, 3);
+    }
+
+    @Test
+    void matchesDirectFilteringOnRandomValues() {
+        Random random = new Random(5);
+        Integer[] values = new Integer[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(8) == 0 ? null : random.nextInt(50);
+        }
+        NutritionIndex index = snapshot(values).getNutrition();
+
+        for (int value = -1; value <= 51; value++) {
+            for (String operator : List.of("<=", "<", ">=", ">", "=")) {
+                int bound = value;
+                int[] expected = IntStream.range(0, values.length)
+                    .filter(i -> values[i] != null && compare(values[i], operator, bound))
+                    .toArray();
+                // The parser takes no negative literals, so build that condition directly
+                NutritionIndex.Condition condition =
+                    new NutritionIndex.Condition(NutritionIndex.Nutrient.CALORIES, operator, value);
+                assertThat(index.matching(condition).toPositions()).as("calories%s%d", operator, value)
+                    .containsExactly(expected);
+            }
+        }
+    }
+
+    @Test
+    void invalidConditionsAreRejected() {
+        for (String text : List.of("calories<=", "sodium<5", "calories<null", "calories!=5",
+                "calories<=-5", "calories<=1234567", "calories =< 5")) {
+            assertThatThrownBy(() -> NutritionIndex.Condition.parse(text))
+                .as(text)
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(NutritionIndex.Condition.parse(" Protein >= 30 "))
+            .isEqualTo(new NutritionIndex.Condition(NutritionIndex.Nutrient.PROTEIN, ">=", 30));
+    }
+
+    private int[] matching(String condition) {
+        return nutrition.matching(NutritionIndex.Condition.parse(condition)).toPositions();
+    }
+
+    private static boolean compare(int actual, String operator, int bound) {
+        return switch (operator) {
+            case "<=" -> actual <= bound;
+            case "<" -> actual < bound;
+            case ">=" -> actual >= bound;
+            case ">" -> actual > bound;
+            default -> actual == bound;
+        };
+    }
+
+    private static MenuSnapshot snapshot(Integer[] calories) {
+        List<MenuItemRow> rows = new ArrayList<>(calories.length);
+        for (int i = 0; i < calories.length; i++) {
+            rows.add(MenuItemRow.builder()
+                .id("item-" + i)
+                .name("Dish " + i)
+                .diningHallId("worcester")
+                .mealType(MealType.LUNCH)
+                .menuDate(DATE)
+                .calories(calories[i])
+                .build());
+        }
+        return MenuSnapshot.build(DATE, 1, rows);
+    }
+}
@@ -0,0 +1,69 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.RatingBucket;
+import com.umassdining.model.MenuItemRatingHistogram;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.repository.MenuItemRatingHistogramRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counters start from meal_ratings, not from the possibly stale stats table,
+ * and forget items whose rows are deleted.
+ */
+class RatingCountersTest {
+
+    private final MenuItemRatingHistogramRepository histogramRepository = mock(MenuItemRatingHistogramRepository.class);
+    private final MealRatingRepository mealRatingRepository = mock(MealRatingRepository.class);
+    private final RatingCounters counters = new RatingCounters(histogramRepository, mealRatingRepository);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadRebuildsFromRatingsAndRewritesTheStatsTable() {
+        when(mealRatingRepository.getRatingHistograms()).thenReturn(List.of(
+            new RatingBucket("a", 5, 3L), new RatingBucket("a", 2, 1L), new RatingBucket("b", 4, 2L)));
+
+        counters.load();
+
+        assertThat(counters.getCount("a")).isEqualTo(4);
+        assertThat(counters.getAverageRating("a")).isEqualTo(17.0 / 4);
+        assertThat(counters.getAverageRating("b")).isEqualTo(4.0);
+        verify(histogramRepository, never()).findAll();
+        ArgumentCaptor<List<MenuItemRatingHistogram>> saved = ArgumentCaptor.forClass(List.class);
+        verify(histogramRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(MenuItemRatingHistogram::getMenuItemId)
+            .containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void deletedItemsAreEvicted() {
+        counters.record("a", 4, null);
+        counters.record("b", 2, null);
+
+        counters.onMenuChanged(new MenuChangedEvent(LocalDate.of(2026, 10, 16), List.of(), Set.of("a")));
+
+        assertThat(counters.getCount("a")).isZero();
+        assertThat(counters.getAverageRating("a")).isNaN();
+        assertThat(counters.getCount("b")).isEqualTo(1);
+    }
+
+    @Test
+    void flushWritesOnlyChangedItems() {
+        counters.record("a", 4, null);
+        counters.flush();
+        counters.flush();
+
+        verify(histogramRepository).saveAll(anyList());
+    }
+}
@@ -0,0 +1,70 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.RecommendationDTO;
+import com.umassdining.enums.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stored lists never outlive the inputs or the meal they were ranked for.
+ */
+class RecommendationStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 16);
+
+    private final RecommendationStore store = new RecommendationStore();
+    private final MenuSnapshot snapshot = MenuSnapshot.empty(TODAY, 7);
+
+    @Test
+    void putStartedBeforeAnInvalidationIsRejected() {
+        long stamp = store.stamp();
+        store.invalidate("u1");
+        store.put("u1", stamp, snapshot, MealType.LUNCH, 10, ranked("stale"));
+
+        assertThat(store.lookup("u1", snapshot, MealType.LUNCH, 10)).isEmpty();
+
+        store.put("u1", store.stamp(), snapshot, MealType.LUNCH, 10, ranked("fresh"));
+        assertThat(store.lookup("u1", snapshot, MealType.LUNCH, 10)).hasValue(ranked("fresh"));
+    }
+
+    @Test
+    void shorterListOnlyServesSmallerRequests() {
+        store.put("u1", store.stamp(), snapshot, MealType.LUNCH, 1, ranked("a"));
+
+        assertThat(store.lookup("u1", snapshot, MealType.LUNCH, 1)).hasValue(ranked("a"));
+        assertThat(store.lookup("u1", snapshot, MealType.LUNCH, 5)).isEmpty();
+        assertThat(store.lookup("u1", MenuSnapshot.empty(TODAY, 8), MealType.LUNCH, 1)).isEmpty();
+    }
+
+    @Test
+    void pruneDropsPastDatesAndMeals() {
+        MenuSnapshot yesterday = MenuSnapshot.empty(TODAY.minusDays(1), 3);
+        store.put("u1", store.stamp(), yesterday, MealType.DINNER, 10, ranked("old"));
+        store.put("u2", store.stamp(), snapshot, MealType.BREAKFAST, 10, ranked("b"));
+        store.put("u2", store.stamp(), snapshot, MealType.LUNCH, 10, ranked("l"));
+
+        store.prune(TODAY, MealType.LUNCH);
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.lookup("u2", snapshot, MealType.BREAKFAST, 10)).isEmpty();
+        assertThat(store.lookup("u2", snapshot, MealType.LUNCH, 10)).hasValue(ranked("l"));
+    }
+
+    @Test
+    void pruningDoesNotForgetAnInvalidation() {
+        long stamp = store.stamp();
+        store.invalidate("u1");
+        store.prune(TODAY, MealType.BREAKFAST);
+        store.put("u1", stamp, snapshot, MealType.LUNCH, 10, ranked("stale"));
+
+        assertThat(store.lookup("u1", snapshot, MealType.LUNCH, 10)).isEmpty();
+    }
+
+    private static List<RecommendationDTO> ranked(String id) {
+        return List.of(RecommendationDTO.builder().id(id).build());
+    }
+}
@@ -0,0 +1,192 @@
+package com.umassdining.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.umassdining.model.MenuItem;
+import com.umassdining.model.ScrapePageState;
+import com.umassdining.repository.MealRatingRepository;
+import com.umassdining.repository.MenuItemBulkWriter;
+import com.umassdining.repository.MenuItemRepository;
+import com.umassdining.repository.ScrapePageStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Scrapes against a local server replaying recorded pages: a 304 and an
+ * unchanged body both skip parsing and persisting, a changed body is diffed.
+ */
+class ScrapingServiceTest {
+
+    private HttpServer server;
+    private final Map<String, byte[]> pages = new ConcurrentHashMap<>();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    private final Map<String, ScrapePageState> savedStates = new ConcurrentHashMap<>();
+    private final List<MenuItem> storedItems = new ArrayList<>();
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final MenuItemBulkWriter menuItemBulkWriter = mock(MenuItemBulkWriter.class);
+    private final ScrapePageStateRepository pageStateRepository = mock(ScrapePageStateRepository.class);
+    private final MenuTextClassifier classifier = spy(classifier());
+    private ScrapingService scrapingService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Worcester answers conditional requests; Franklin ignores validators and always sends the page
+        server.createContext("/worcester", exchange -> serve(exchange, "worcester", "\"w1\""));
+        server.createContext("/franklin", exchange -> serve(exchange, "franklin", null));
+        server.start();
+        pages.put("worcester", recorded("worcester.html"));
+        pages.put("franklin", recorded("franklin.html"));
+
+        when(pageStateRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<ScrapePageState> found = new ArrayList<>();
+            for (String url : invocation.<List<String>>getArgument(0)) {
+                ScrapePageState state = savedStates.get(url);
+                if (state != null) {
+                    found.add(copy(state));
+                }
+            }
+            return found;
+        });
+        doAnswer(invocation -> {
+            for (ScrapePageState state : invocation.<Collection<ScrapePageState>>getArgument(0)) {
+                savedStates.put(state.getUrl(), copy(state));
+            }
+            return null;
+        }).when(pageStateRepository).saveAll(anyList());
+        when(menuItemRepository.findByMenuDateAndDiningHallIdIn(any(), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> halls = invocation.getArgument(1);
+            return storedItems.stream().filter(item -> halls.contains(item.getDiningHallId())).toList();
+        });
+        doAnswer(invocation -> {
+            List<MenuItem> items = invocation.getArgument(0);
+            storedItems.addAll(items);
+            return items.size();
+        }).when(menuItemBulkWriter).insertAll(anyList());
+
+        MenuDiffEngine menuDiffEngine = new MenuDiffEngine(menuItemRepository, menuItemBulkWriter,
+            mock(MealRatingRepository.class), mock(ApplicationEventPublisher.class));
+        scrapingService = new ScrapingService(menuDiffEngine, pageFetcher(), pageStateRepository, classifier);
+        ReflectionTestUtils.setField(scrapingService, "baseUrl",
+            "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void unchangedPagesAreNeitherParsedNorPersisted() {
+        List<MenuItem> first = scrapingService.scrapeAllHalls();
+        assertThat(first).extracting(MenuItem::getName).contains(
+            "Grilled Chicken Sandwich", "Chana Masala Curry", "Turkey Club Sandwich", "Roasted Vegetable Wrap");
+        clearInvocations(classifier, menuItemBulkWriter, menuItemRepository);
+
+        List<MenuItem> second = scrapingService.scrapeAllHalls();
+
+        assertThat(second).isEmpty();
+        assertThat(notModified).hasValue(1);
+        verify(classifier, never()).classify(any());
+        verify(menuItemRepository, never()).findByMenuDateAndDiningHallIdIn(any(), anyCollection());
+        verify(menuItemBulkWriter, never()).insertAll(anyList());
+    }
+
+    @Test
+    void changedPageIsDiffedAgainstTheStoredMenu() {
+        scrapingService.scrapeAllHalls();
+        pages.put("franklin", recorded("franklin-updated.html"));
+
+        List<MenuItem> inserted = scrapingService.scrapeAllHalls();
+
+        assertThat(inserted).extracting(MenuItem::getName).containsExactly("Tomato Basil Soup");
+        assertThat(inserted.get(0).getDiningHallId()).isEqualTo("franklin");
+        assertThat(storedItems).filteredOn(item -> item.getName().equals("Turkey Club Sandwich")).hasSize(1);
+        assertThat(savedStates.get(pageUrl("franklin")).getChangedAt()).isNotNull();
+    }
+
+    private void serve(HttpExchange exchange, String hall, String etag) throws IOException {
+        try (exchange) {
+            if (etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] body = pages.get(hall);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            if (etag != null) {
+                exchange.getResponseHeaders().set("ETag", etag);
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private String pageUrl(String hall) {
+        return "http://localhost:" + server.getAddress().getPort() + "/" + hall;
+    }
+
+    private static byte[] recorded(String name) {
+        try (InputStream in = new ClassPathResource("pages/" + name).getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ScrapePageState copy(ScrapePageState state) {
+        return new ScrapePageState(state.getUrl(), state.getMenuDate(), state.getEtag(), state.getLastModified(),
+            state.getContentHash(), state.getCheckedAt(), state.getChangedAt());
+    }
+
+    private static PageFetcher pageFetcher() {
+        PageFetcher fetcher = new PageFetcher();
+        ReflectionTestUtils.setField(fetcher, "permitsPerSecond", 1000.0);
+        ReflectionTestUtils.setField(fetcher, "burst", 10);
+        // Halls without a recorded page answer 404, which is not retried
+        ReflectionTestUtils.setField(fetcher, "maxAttempts", 1);
+        ReflectionTestUtils.setField(fetcher, "baseDelayMs", 1L);
+        ReflectionTestUtils.setField(fetcher, "maxDelayMs", 1L);
+        ReflectionTestUtils.setField(fetcher, "timeoutMs", 5000);
+        return fetcher;
+    }
+
+    private static MenuTextClassifier classifier() {
+        try {
+            return new MenuTextClassifier(new ClassPathResource("menu-lexicon.txt"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.umassdining.service;
+
+import com.umassdining.dto.CategoryRatingSummary;
+import com.umassdining.repository.MealRatingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A rating must count once whether the profile was loaded before or during
+ * its write.
+ */
+class UserTasteProfileCacheTest {
+
+    private final MealRatingRepository repository = mock(MealRatingRepository.class);
+    private final UserTasteProfileCache cache = new UserTasteProfileCache(repository, 100);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void ratingIsAppliedToAProfileLoadedBeforeTheWrite() {
+        when(repository.getCategoryRatingSummaryForUser("u1")).thenReturn(summary(8, 2));
+        assertThat(cache.get("u1").getAverageRating("Grill")).isEqualTo(4.0);
+
+        writeAndCommit("u1", () -> { }, 1);
+
+        assertThat(cache.get("u1").getAverageRating("Grill")).isEqualTo(3.0);
+        verify(repository, times(1)).getCategoryRatingSummaryForUser("u1");
+    }
+
+    @Test
+    void loadDuringTheWriteIsNotCachedOrCountedTwice() {
+        // The load runs after the rating is stored, so it already includes it
+        when(repository.getCategoryRatingSummaryForUser("u1")).thenReturn(summary(9, 3));
+
+        UserTasteProfile[] duringWrite = new UserTasteProfile[1];
+        writeAndCommit("u1", () -> duringWrite[0] = cache.get("u1"), 1);
+
+        assertThat(duringWrite[0].getAverageRating("Grill")).isEqualTo(3.0);
+        assertThat(cache.get("u1").getAverageRating("Grill")).isEqualTo(3.0);
+        verify(repository, times(2)).getCategoryRatingSummaryForUser("u1");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotBlockCaching() {
+        when(repository.getCategoryRatingSummaryForUser("u1")).thenReturn(summary(8, 2));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.beginWrite("u1");
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        cache.get("u1");
+        cache.get("u1");
+        verify(repository, times(1)).getCategoryRatingSummaryForUser("u1");
+    }
+
+    // Run a rating write the way MealRatingService does, with a concurrent read in the middle
+    private void writeAndCommit(String userId, Runnable concurrentRead, int rating) {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.beginWrite(userId);
+        concurrentRead.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        cache.recordRating(userId, "Grill", rating, null);
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private static List<CategoryRatingSummary> summary(long sum, long count) {
+        return List.of(new CategoryRatingSummary("Grill", sum, count));
+    }
+}
@@ -0,0 +1,96 @@
+package com.umassdining.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The automaton finds exactly the patterns a naive case-insensitive scan
+ * finds, including overlapping and nested ones, with and without word bounds.
+ */
+class AhoCorasickTest {
+
+    @Test
+    void wholeWordsDoNotMatchInsideOtherWords() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("egg", "ham", "gf"), true);
+
+        assertThat(found(automaton, "Roasted Eggplant with Hamachi")).isEmpty();
+        assertThat(found(automaton, "Ham & EGG (GF)")).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(automaton.containsAny("eggs")).isFalse();
+        assertThat(automaton.containsAny(null)).isFalse();
+    }
+
+    @Test
+    void overlappingPatternsAreAllFound() {
+        AhoCorasick automaton = AhoCorasick.compile(List.of("he", "she", "hers", "his"), false);
+
+        assertThat(found(automaton, "USHERS")).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    void matchesNaiveScanOnRandomText() {
+        Random random = new Random(13);
+        for (int round = 0; round < 300; round++) {
+            List<String> patterns = new ArrayList<>();
+            for (int p = 0; p < 1 + random.nextInt(70); p++) {
+                patterns.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            String text = randomText(random, random.nextInt(40));
+            for (boolean wholeWords : new boolean[]{false, true}) {
+                AhoCorasick automaton = AhoCorasick.compile(patterns, wholeWords);
+                Set<Integer> expected = naive(patterns, text, wholeWords);
+
+                assertThat(found(automaton, text)).as("%s in '%s'", patterns, text)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(automaton.containsAny(text)).isEqualTo(!expected.isEmpty());
+            }
+        }
+    }
+
+    private static Set<Integer> found(AhoCorasick automaton, String text) {
+        long[] bits = new long[automaton.bitsetWords()];
+        int added = automaton.collect(text, bits);
+        Set<Integer> ids = new HashSet<>();
+        for (int id = 0; id < automaton.patternCount(); id++) {
+            if ((bits[id >>> 6] & 1L << id) != 0) {
+                ids.add(id);
+            }
+        }
+        assertThat(added).isEqualTo(ids.size());
+        return ids;
+    }
+
+    private static Set<Integer> naive(List<String> patterns, String text, boolean wholeWords) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        Set<Integer> ids = new HashSet<>();
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id).toLowerCase(Locale.ROOT);
+            for (int at = lower.indexOf(pattern); at >= 0; at = lower.indexOf(pattern, at + 1)) {
+                int end = at + pattern.length();
+                if (!wholeWords || ((at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1)))
+                        && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end))))) {
+                    ids.add(id);
+                    break;
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Small alphabet with mixed case and separators, so matches and word bounds are frequent
+    private static String randomText(Random random, int length) {
+        String alphabet = "abAB -";
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,44 @@
+package com.umassdining.util;
+
+import com.umassdining.dto.MenuItemDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Field lists are validated against the DTO and normalized, so any spelling
+ * of the same set is one cache key.
+ */
+class FieldSetTest {
+
+    @Test
+    void orderSpacingAndDuplicatesDoNotMatter() {
+        FieldSet first = FieldSet.parse(MenuItemDTO.class, "name,id");
+        FieldSet second = FieldSet.parse(MenuItemDTO.class, " id , name,,id ");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.toString()).isEqualTo("id,name");
+        assertThat(first.contains("name")).isTrue();
+        assertThat(first.contains("calories")).isFalse();
+    }
+
+    @Test
+    void blankListsMeanEveryField() {
+        assertThat(FieldSet.parse(MenuItemDTO.class, null)).isNull();
+        assertThat(FieldSet.parse(MenuItemDTO.class, "  ")).isNull();
+        assertThat(FieldSet.parse(MenuItemDTO.class, ", ,")).isNull();
+    }
+
+    @Test
+    void unknownAndOverlongListsAreRejected() {
+        assertThatThrownBy(() -> FieldSet.parse(MenuItemDTO.class, "id,password"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("'password'");
+        assertThatThrownBy(() -> FieldSet.parse(MenuItemDTO.class, "Name"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldSet.parse(MenuItemDTO.class, "id,".repeat(200)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("longer than");
+    }
+}
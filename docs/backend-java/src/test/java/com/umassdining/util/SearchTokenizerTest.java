@@ -0,0 +1,82 @@
+package com.umassdining.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inflections of a word stem to one term, and the bounded edit distance
+ * agrees with the full one up to its bound and exceeds the bound otherwise.
+ */
+class SearchTokenizerTest {
+
+    @Test
+    void inflectionsShareATerm() {
+        assertThat(SearchTokenizer.tokenize("Roasted Potatoes")).isEqualTo(SearchTokenizer.tokenize("roast potato"));
+        assertThat(SearchTokenizer.tokenize("Baked Berries")).isEqualTo(SearchTokenizer.tokenize("bake berry"));
+        assertThat(SearchTokenizer.tokenize("Chopped Peaches")).isEqualTo(SearchTokenizer.tokenize("chop peach"));
+        assertThat(SearchTokenizer.stem("grilled")).isEqualTo("grill");
+        assertThat(SearchTokenizer.stem("hummus")).isEqualTo("hummus");
+    }
+
+    @Test
+    void stopWordsAndPunctuationAreDropped() {
+        assertThat(SearchTokenizer.tokenize("Mac & Cheese, served w/ the Broccoli"))
+            .containsExactly("mac", "chees", "broccoli");
+        assertThat(SearchTokenizer.tokenize(null)).isEmpty();
+        assertThat(SearchTokenizer.tokenize("  --  ")).isEmpty();
+    }
+
+    @Test
+    void trigramsArePadded() {
+        assertThat(SearchTokenizer.trigrams("egg")).containsExactly("$eg", "egg", "gg$");
+        assertThat(SearchTokenizer.trigrams("a")).containsExactly("$a$");
+    }
+
+    @Test
+    void boundedEditDistanceAgreesWithTheFullOne() {
+        assertThat(SearchTokenizer.editDistance("brocolli", "broccoli", 2)).isEqualTo(2);
+        assertThat(SearchTokenizer.editDistance("slamon", "salmon", 1)).isEqualTo(1);
+
+        Random random = new Random(3);
+        for (int round = 0; round < 2000; round++) {
+            String a = randomWord(random);
+            String b = randomWord(random);
+            int max = random.nextInt(4);
+            int full = osa(a, b);
+            int bounded = SearchTokenizer.editDistance(a, b, max);
+            if (full <= max) {
+                assertThat(bounded).as("%s %s %d", a, b, max).isEqualTo(full);
+            } else {
+                assertThat(bounded).as("%s %s %d", a, b, max).isGreaterThan(max);
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[random.nextInt(7)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(chars);
+    }
+
+    // Unbounded optimal string alignment distance over the full matrix
+    private static int osa(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
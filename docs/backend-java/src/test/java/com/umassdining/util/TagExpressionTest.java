@@ -0,0 +1,95 @@
+package com.umassdining.util;
+
+import com.umassdining.dto.MenuItemRow;
+import com.umassdining.enums.MealType;
+import com.umassdining.service.MenuSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * NOT binds tightest, then AND, then OR; malformed input is rejected, and tags
+ * match regardless of case.
+ */
+class TagExpressionTest {
+
+    private static final int SIZE = 70;
+    private static final Bitmap ALL = Bitmap.all(SIZE);
+
+    // Positions past 63 make every operation cross a word boundary
+    private static final Map<String, Bitmap> TAGS = Map.of(
+        "vegan", Bitmap.of(new int[]{0, 1, 64}, SIZE),
+        "vegetarian", Bitmap.of(new int[]{0, 1, 2, 64, 65}, SIZE),
+        "spicy", Bitmap.of(new int[]{1, 2, 65, 69}, SIZE));
+    private static final Function<String, Bitmap> LOOKUP = tag -> TAGS.getOrDefault(tag, Bitmap.empty(SIZE));
+
+    @Test
+    void andBindsTighterThanOr() {
+        assertThat(positions("vegan OR vegetarian AND spicy")).containsExactly(0, 1, 2, 64, 65);
+        assertThat(positions("(vegan OR vegetarian) AND spicy")).containsExactly(1, 2, 65);
+    }
+
+    @Test
+    void notBindsToTheNextFactor() {
+        assertThat(positions("vegetarian NOT spicy")).containsExactly(0, 64);
+        assertThat(positions("NOT vegan AND spicy")).containsExactly(2, 65, 69);
+        assertThat(positions("NOT (vegan OR spicy)")).hasSize(SIZE - 6).doesNotContain(0, 1, 2, 64, 65, 69);
+        assertThat(positions("not not vegan")).containsExactly(0, 1, 64);
+    }
+
+    @Test
+    void implicitAndMatchesExplicitAnd() {
+        assertThat(positions("vegetarian spicy")).containsExactly(positions("vegetarian AND spicy"));
+    }
+
+    @Test
+    void unknownTagsMatchNothing() {
+        assertThat(positions("kosher")).isEmpty();
+        assertThat(positions("kosher OR vegan")).containsExactly(0, 1, 64);
+    }
+
+    @Test
+    void malformedExpressionsAreRejected() {
+        for (String text : List.of("", "vegan AND", "AND vegan", "(vegan", "vegan)", "vegan OR OR spicy",
+                "NOT", "()", "vegan & spicy")) {
+            assertThatThrownBy(() -> TagExpression.parse(text))
+                .as(text)
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> TagExpression.parse("vegan ".repeat(200)))
+            .hasMessageContaining("longer than");
+    }
+
+    @Test
+    void tagsMatchSnapshotTagsIgnoringCase() {
+        MenuSnapshot snapshot = MenuSnapshot.build(LocalDate.of(2026, 10, 16), 1, List.of(
+            row("a", "Vegan"), row("b", "vegan"), row("c", "Spicy")));
+
+        Bitmap expression = TagExpression.parse("Vegan").evaluate(snapshot::tagBitmap, snapshot.allItems());
+        Bitmap included = TagExpression.anyOf(List.of("VEGAN")).evaluate(snapshot::tagBitmap, snapshot.allItems());
+
+        assertThat(expression.toPositions()).containsExactly(0, 1);
+        assertThat(included.toPositions()).containsExactly(0, 1);
+    }
+
+    private static int[] positions(String text) {
+        return TagExpression.parse(text).evaluate(LOOKUP, ALL).toPositions();
+    }
+
+    private static MenuItemRow row(String id, String tag) {
+        return MenuItemRow.builder()
+            .id(id)
+            .name("Dish " + id)
+            .diningHallId("worcester")
+            .mealType(MealType.LUNCH)
+            .menuDate(LocalDate.of(2026, 10, 16))
+            .tags(tag)
+            .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.umassdining.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A full bucket serves its burst at once, and callers past it are queued one
+ * refill interval apart.
+ */
+class TokenBucketTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void burstIsFreeAndLaterReservationsQueue() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        long third = bucket.reserve();
+        long fourth = bucket.reserve();
+
+        // Time passes between calls, so waits may come out slightly short of whole intervals
+        assertThat(third).isBetween(INTERVAL / 2, INTERVAL);
+        assertThat(fourth - third).isBetween(INTERVAL * 9 / 10, INTERVAL);
+    }
+
+    @Test
+    void tokensRefillUpToTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 1);
+        bucket.reserve();
+
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isPositive();
+    }
+
+    @Test
+    void nonPositiveSettingsAreRejected() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.umassdining.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The selector returns what a stable descending sort truncated to k would:
+ * highest scores first, equal scores in ascending index order.
+ */
+class TopKSelectorTest {
+
+    @Test
+    void drainsBestFirst() {
+        TopKSelector selector = new TopKSelector(3);
+        double[] scores = {0.5, 2.0, -1.0, 3.5, 1.0, 2.5};
+        for (int i = 0; i < scores.length; i++) {
+            selector.offer(i, scores[i]);
+        }
+
+        int[] indices = new int[3];
+        double[] best = new double[3];
+        assertThat(selector.drainDescending(indices, best)).isEqualTo(3);
+        assertThat(indices).containsExactly(3, 5, 1);
+        assertThat(best).containsExactly(3.5, 2.5, 2.0);
+        assertThat(selector.size()).isZero();
+    }
+
+    @Test
+    void tiesKeepTheLowerIndexWhicheverArrivesFirst() {
+        TopKSelector forward = new TopKSelector(2);
+        TopKSelector backward = new TopKSelector(2);
+        for (int i = 0; i < 5; i++) {
+            forward.offer(i, 1.0);
+            backward.offer(4 - i, 1.0);
+        }
+
+        assertThat(drain(forward)).containsExactly(0, 1);
+        assertThat(drain(backward)).containsExactly(0, 1);
+    }
+
+    @Test
+    void fewerCandidatesThanKAreAllReturned() {
+        TopKSelector selector = new TopKSelector(10);
+        selector.offer(7, 1.0);
+        selector.offer(2, 4.0);
+
+        assertThat(drain(selector)).containsExactly(2, 7);
+    }
+
+    @Test
+    void zeroKKeepsNothingAndNegativeKIsRejected() {
+        TopKSelector selector = new TopKSelector(0);
+        selector.offer(1, 1.0);
+        assertThat(selector.size()).isZero();
+
+        assertThatThrownBy(() -> new TopKSelector(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesAStableSortOnRandomScores() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(60);
+            int k = random.nextInt(12);
+            // Few distinct values, so ties are common
+            double[] scores = random.doubles(n).map(d -> Math.floor(d * 8)).toArray();
+
+            TopKSelector selector = new TopKSelector(k);
+            for (int i = 0; i < n; i++) {
+                selector.offer(i, scores[i]);
+            }
+            int[] expected = IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> -scores[i]))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+            assertThat(drain(selector)).as("n=%d k=%d", n, k).containsExactly(expected);
+        }
+    }
+
+    private static int[] drain(TopKSelector selector) {
+        int[] indices = new int[selector.size()];
+        selector.drainDescending(indices, new double[indices.length]);
+        return indices;
+    }
+}
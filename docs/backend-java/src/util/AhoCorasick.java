@@ -0,0 +1,215 @@
+package com.umassdining.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over a fixed set of patterns.
+ *
+ * Transitions are stored per state as sorted char/target arrays and all
+ * scans work on the original text, folding case one char at a time, so
+ * matching never allocates. With {@code wholeWords} a match only counts
+ * when it is not glued to a letter or digit on either side.
+ */
+public final class AhoCorasick {
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[][] outputs;
+    private final int[] patternLengths;
+    private final boolean wholeWords;
+
+    private AhoCorasick(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[][] outputs,
+                        int[] patternLengths, boolean wholeWords) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.patternLengths = patternLengths;
+        this.wholeWords = wholeWords;
+    }
+
+    /**
+     * Compile patterns; pattern ids are their indexes in the list
+     */
+    public static AhoCorasick compile(List<String> patterns, boolean wholeWords) {
+        List<StringBuilder> keys = new ArrayList<>();
+        List<int[]> targets = new ArrayList<>();
+        List<int[]> stateOutputs = new ArrayList<>();
+        keys.add(new StringBuilder());
+        targets.add(new int[0]);
+        stateOutputs.add(new int[0]);
+
+        int[] lengths = new int[patterns.size()];
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            lengths[id] = pattern.length();
+            if (pattern.isEmpty()) continue;
+
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = Character.toLowerCase(pattern.charAt(i));
+                int index = keys.get(state).indexOf(String.valueOf(c));
+                if (index >= 0) {
+                    state = targets.get(state)[index];
+                } else {
+                    int next = keys.size();
+                    keys.add(new StringBuilder());
+                    targets.add(new int[0]);
+                    stateOutputs.add(new int[0]);
+                    keys.get(state).append(c);
+                    int[] grown = Arrays.copyOf(targets.get(state), targets.get(state).length + 1);
+                    grown[grown.length - 1] = next;
+                    targets.set(state, grown);
+                    state = next;
+                }
+            }
+            stateOutputs.set(state, append(stateOutputs.get(state), id));
+        }
+
+        int stateCount = keys.size();
+        char[][] edgeChars = new char[stateCount][];
+        int[][] edgeTargets = new int[stateCount][];
+        for (int s = 0; s < stateCount; s++) {
+            sortEdges(keys.get(s).toString().toCharArray(), targets.get(s), edgeChars, edgeTargets, s);
+        }
+
+        int[][] outputs = stateOutputs.toArray(new int[0][]);
+        int[] fail = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int e = 0; e < edgeChars[state].length; e++) {
+                char c = edgeChars[state][e];
+                int child = edgeTargets[state][e];
+                int f = fail[state];
+                while (f != 0 && findEdge(edgeChars[f], c) < 0) {
+                    f = fail[f];
+                }
+                int index = findEdge(edgeChars[f], c);
+                fail[child] = index >= 0 && edgeTargets[f][index] != child ? edgeTargets[f][index] : 0;
+                outputs[child] = merge(outputs[child], outputs[fail[child]]);
+                queue.add(child);
+            }
+        }
+
+        return new AhoCorasick(edgeChars, edgeTargets, fail, outputs, lengths, wholeWords);
+    }
+
+    public int patternCount() {
+        return patternLengths.length;
+    }
+
+    /**
+     * Number of long words needed for a pattern bitset
+     */
+    public int bitsetWords() {
+        return (patternLengths.length + 63) >>> 6;
+    }
+
+    /**
+     * Set the bit of every pattern found in the text; returns the number of newly set bits
+     */
+    public int collect(CharSequence text, long[] found) {
+        if (text == null) {
+            return 0;
+        }
+        int added = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            for (int id : outputs[state]) {
+                if (wholeWords && !isWholeWord(text, i + 1 - patternLengths[id], i + 1)) {
+                    continue;
+                }
+                long bit = 1L << (id & 63);
+                if ((found[id >>> 6] & bit) == 0) {
+                    found[id >>> 6] |= bit;
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Whether any pattern occurs in the text
+     */
+    public boolean containsAny(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            for (int id : outputs[state]) {
+                if (!wholeWords || isWholeWord(text, i + 1 - patternLengths[id], i + 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int index = findEdge(edgeChars[state], c);
+            if (index >= 0) {
+                return edgeTargets[state][index];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private static boolean isWholeWord(CharSequence text, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))
+            && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+    }
+
+    private static int findEdge(char[] chars, char c) {
+        if (chars.length < 8) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) return i;
+            }
+            return -1;
+        }
+        int index = Arrays.binarySearch(chars, c);
+        return index >= 0 ? index : -1;
+    }
+
+    private static void sortEdges(char[] chars, int[] targets, char[][] edgeChars, int[][] edgeTargets, int state) {
+        Integer[] order = new Integer[chars.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Character.compare(chars[a], chars[b]));
+        edgeChars[state] = new char[chars.length];
+        edgeTargets[state] = new int[chars.length];
+        for (int i = 0; i < order.length; i++) {
+            edgeChars[state][i] = chars[order[i]];
+            edgeTargets[state][i] = targets[order[i]];
+        }
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] grown = Arrays.copyOf(values, values.length + 1);
+        grown[values.length] = value;
+        return grown;
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        if (b.length == 0) return a;
+        if (a.length == 0) return b;
+        int[] merged = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        return merged;
+    }
+}
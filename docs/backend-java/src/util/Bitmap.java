@@ -0,0 +1,135 @@
+package com.umassdining.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable bitset over item positions 0..size-1.
+ *
+ * Words past the last set bit are not stored, so sparse tags near the start
+ * of a day's menu stay small; AND, OR and ANDNOT run a word at a time.
+ *
+ * Positions index one day's snapshot, a few thousand items at most, so a
+ * full bitmap is a few hundred bytes and fits in a handful of cache lines.
+ * Roaring-style array and run containers only start to pay off per 65536
+ * positions, which a day's menu never reaches; they would add a container
+ * dispatch to every operation without saving memory.
+ */
+public final class Bitmap {
+
+    private static final long[] NO_WORDS = new long[0];
+
+    private final long[] words;
+    private final int size;
+
+    private Bitmap(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    public static Bitmap empty(int size) {
+        return new Bitmap(NO_WORDS, size);
+    }
+
+    /**
+     * Every position below size
+     */
+    public static Bitmap all(int size) {
+        long[] words = new long[(size + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        if ((size & 63) != 0) {
+            words[words.length - 1] = (1L << size) - 1;
+        }
+        return new Bitmap(words, size);
+    }
+
+    /**
+     * Bitmap of the given positions, which must be below size
+     */
+    public static Bitmap of(int[] positions, int size) {
+        return of(positions, 0, positions.length, size);
+    }
+
+    /**
+     * Bitmap of positions[from..to), which must be below size
+     */
+    public static Bitmap of(int[] positions, int from, int to, int size) {
+        int max = -1;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, positions[i]);
+        }
+        long[] words = new long[(max + 64) >>> 6];
+        for (int i = from; i < to; i++) {
+            words[positions[i] >>> 6] |= 1L << positions[i];
+        }
+        return new Bitmap(words, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int position) {
+        int word = position >>> 6;
+        return word < words.length && (words[word] & 1L << position) != 0;
+    }
+
+    public Bitmap and(Bitmap other) {
+        int length = Math.min(words.length, other.words.length);
+        long[] out = new long[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = words[i] & other.words[i];
+        }
+        return trimmed(out);
+    }
+
+    public Bitmap or(Bitmap other) {
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] out = Arrays.copyOf(longer, longer.length);
+        for (int i = 0; i < shorter.length; i++) {
+            out[i] |= shorter[i];
+        }
+        return new Bitmap(out, Math.max(size, other.size));
+    }
+
+    public Bitmap andNot(Bitmap other) {
+        long[] out = Arrays.copyOf(words, words.length);
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            out[i] &= ~other.words[i];
+        }
+        return trimmed(out);
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Set positions, ascending
+     */
+    public int[] toPositions() {
+        int[] positions = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                positions[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return positions;
+    }
+
+    private Bitmap trimmed(long[] out) {
+        int length = out.length;
+        while (length > 0 && out[length - 1] == 0) {
+            length--;
+        }
+        return new Bitmap(length == out.length ? out : Arrays.copyOf(out, length), size);
+    }
+}
@@ -0,0 +1,126 @@
+package com.umassdining.util;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A validated subset of a response DTO's properties, from a fields= parameter.
+ *
+ * Names are kept sorted, so "name,id" and "id,name" are equal and share any
+ * cache entry keyed on the set. Parsed sets are interned per DTO type, which
+ * also keeps the Jackson filter built once per distinct combination.
+ */
+public final class FieldSet {
+
+    /**
+     * Jackson filter id the sparse-fieldset DTOs are registered under
+     */
+    public static final String FILTER = "fields";
+
+    private static final int MAX_LENGTH = 500;
+    private static final int MAX_INTERNED = 1024;
+
+    private static final Map<Class<?>, Set<String>> PROPERTIES = new ConcurrentHashMap<>();
+    private static final Map<FieldSet, FieldSet> INTERNED = new ConcurrentHashMap<>();
+
+    private final Class<?> type;
+    private final Set<String> names;
+    private final String key;
+    private final FilterProvider filters;
+
+    private FieldSet(Class<?> type, Set<String> names) {
+        this.type = type;
+        this.names = Collections.unmodifiableSet(names);
+        this.key = String.join(",", names);
+        this.filters = new SimpleFilterProvider()
+            .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    /**
+     * Parse a comma-separated list of property names of type; null when text is blank.
+     * Throws IllegalArgumentException naming the first unknown field.
+     */
+    public static FieldSet parse(Class<?> type, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("fields is longer than " + MAX_LENGTH + " characters");
+        }
+        Set<String> known = PROPERTIES.computeIfAbsent(type, FieldSet::properties);
+        Set<String> names = new TreeSet<>();
+        for (String name : text.split(",")) {
+            String field = name.strip();
+            if (field.isEmpty()) continue;
+            if (!known.contains(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'; expected any of " + known);
+            }
+            names.add(field);
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        FieldSet parsed = new FieldSet(type, names);
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return INTERNED.getOrDefault(parsed, parsed);
+        }
+        FieldSet existing = INTERNED.putIfAbsent(parsed, parsed);
+        return existing != null ? existing : parsed;
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Filters to hand to an ObjectWriter or MappingJacksonValue
+     */
+    public FilterProvider getFilters() {
+        return filters;
+    }
+
+    /**
+     * Canonical comma-joined names, stable across requests
+     */
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FieldSet other && type == other.type && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + key.hashCode();
+    }
+
+    // Instance fields in declaration order, which is how Lombok DTOs expose their properties
+    private static Set<String> properties(Class<?> type) {
+        List<String> names = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                names.add(field.getName());
+            }
+        }
+        return Collections.unmodifiableSet(new LinkedHashSet<>(names));
+    }
+}
@@ -0,0 +1,143 @@
+package com.umassdining.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizing, stemming and trigram helpers for menu search.
+ *
+ * Text is lowercased and split on anything that is not a letter or digit;
+ * stop words are dropped and the rest reduced with a light English suffix
+ * stemmer, so "Roasted Potatoes" and "roast potato" produce the same terms.
+ */
+public final class SearchTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "or", "the", "of", "with", "w", "in", "on", "to", "for", "served", "style");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Stemmed terms of a text, in order, duplicates kept
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(word)) {
+                    terms.add(stem(word));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Strip common plural and verb suffixes, then a trailing "e", so bake/baked/baking agree
+     */
+    public static String stem(String word) {
+        String stem = stripSuffix(word);
+        int n = stem.length();
+        if (n >= 4 && stem.charAt(n - 1) == 'e' && stem.charAt(n - 2) != 'e') {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+
+    /**
+     * Trigrams of a term padded with '$' at both ends, so short terms still have some
+     */
+    public static List<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(Math.max(1, padded.length() - 2));
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        if (grams.isEmpty()) {
+            grams.add(padded);
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance, giving up once it exceeds max
+     */
+    public static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] prev2 = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = recycled;
+        }
+        return prev[b.length()];
+    }
+
+    private static String stripSuffix(String word) {
+        int n = word.length();
+        if (n <= 3) {
+            return word;
+        }
+        if (word.endsWith("ies") && n > 4) {
+            return word.substring(0, n - 3) + "y";
+        }
+        if (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("sses") || word.endsWith("xes") || word.endsWith("zes")) {
+            return word.substring(0, n - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, n - 1);
+        }
+        if (word.endsWith("ing") && n > 5) {
+            return undouble(word.substring(0, n - 3));
+        }
+        if (word.endsWith("ed") && n > 4) {
+            return undouble(word.substring(0, n - 2));
+        }
+        return word;
+    }
+
+    // "chopped" -> "chopp" -> "chop", but keep "ll"/"ss"/"ff" endings like "grill"
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n > 2 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lsfz".indexOf(stem.charAt(n - 1)) < 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
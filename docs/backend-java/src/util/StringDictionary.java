@@ -0,0 +1,85 @@
+package com.umassdining.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable string <-> int code dictionary.
+ *
+ * Codes are dense (0..size-1) in insertion order so they can index arrays
+ * and bitsets directly. Every value is stored once and handed back as the
+ * same canonical instance.
+ */
+public final class StringDictionary {
+
+    private final String[] values;
+    private final Map<String, Integer> codes;
+
+    private StringDictionary(String[] values, Map<String, Integer> codes) {
+        this.values = values;
+        this.codes = codes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Code for a value, or -1 if the value is not in the dictionary
+     */
+    public int code(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    public String value(int code) {
+        return values[code];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public List<String> values() {
+        return List.of(values);
+    }
+
+    public static final class Builder {
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        /**
+         * Add a value if absent and return its code; null maps to -1
+         */
+        public int add(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        /**
+         * Add a value if absent and return the canonical instance
+         */
+        public String canonical(String value) {
+            int code = add(value);
+            return code >= 0 ? values.get(code) : null;
+        }
+
+        public StringDictionary build() {
+            return new StringDictionary(values.toArray(new String[0]), Map.copyOf(codes));
+        }
+    }
+}
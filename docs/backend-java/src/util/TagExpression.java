@@ -0,0 +1,184 @@
+package com.umassdining.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Boolean expression over item tags, evaluated against per-tag bitmaps.
+ *
+ * Grammar, keywords case-insensitive, AND binding tighter than OR:
+ * <pre>
+ *   expr   := term ( OR term )*
+ *   term   := factor ( [AND] factor )*
+ *   factor := NOT factor | '(' expr ')' | tag
+ * </pre>
+ * so "vegan AND gluten-free AND NOT contains-nuts" and
+ * "(vegan OR vegetarian) NOT spicy" both parse. Tags are lowercased, and
+ * the bitmap lookup is expected to match them case-insensitively.
+ */
+public abstract class TagExpression {
+
+    private static final int MAX_LENGTH = 1000;
+
+    /**
+     * Positions matching this expression, given a lookup from tag to bitmap and the bitmap of all items
+     */
+    public abstract Bitmap evaluate(Function<String, Bitmap> tagBitmaps, Bitmap all);
+
+    public static TagExpression tag(String tag) {
+        String name = tag.toLowerCase(Locale.ROOT);
+        return new TagExpression() {
+            @Override
+            public Bitmap evaluate(Function<String, Bitmap> tagBitmaps, Bitmap all) {
+                return tagBitmaps.apply(name);
+            }
+        };
+    }
+
+    public static TagExpression not(TagExpression operand) {
+        return new TagExpression() {
+            @Override
+            public Bitmap evaluate(Function<String, Bitmap> tagBitmaps, Bitmap all) {
+                return all.andNot(operand.evaluate(tagBitmaps, all));
+            }
+        };
+    }
+
+    public static TagExpression and(TagExpression left, TagExpression right) {
+        return new TagExpression() {
+            @Override
+            public Bitmap evaluate(Function<String, Bitmap> tagBitmaps, Bitmap all) {
+                Bitmap result = left.evaluate(tagBitmaps, all);
+                return result.cardinality() == 0 ? result : result.and(right.evaluate(tagBitmaps, all));
+            }
+        };
+    }
+
+    public static TagExpression or(TagExpression left, TagExpression right) {
+        return new TagExpression() {
+            @Override
+            public Bitmap evaluate(Function<String, Bitmap> tagBitmaps, Bitmap all) {
+                return left.evaluate(tagBitmaps, all).or(right.evaluate(tagBitmaps, all));
+            }
+        };
+    }
+
+    /**
+     * Items carrying at least one of the tags; null if there are none
+     */
+    public static TagExpression anyOf(Collection<String> tags) {
+        TagExpression result = null;
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) continue;
+            TagExpression next = tag(tag.strip());
+            result = result == null ? next : or(result, next);
+        }
+        return result;
+    }
+
+    /**
+     * Parse an expression; throws IllegalArgumentException with the offending position on bad input
+     */
+    public static TagExpression parse(String text) {
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Tag expression is longer than " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(tokenize(text));
+        TagExpression expression = parser.expression();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position) + "' in tag expression");
+        }
+        return expression;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (Character.isLetterOrDigit(c) || c == '-' || c == '_') {
+                int start = i;
+                while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i))
+                        || text.charAt(i) == '-' || text.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(text.substring(start, i));
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' at " + i + " in tag expression");
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Recursive descent over the token list
+     */
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private int position;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        TagExpression expression() {
+            TagExpression result = term();
+            while (accept("OR")) {
+                result = or(result, term());
+            }
+            return result;
+        }
+
+        TagExpression term() {
+            TagExpression result = factor();
+            while (position < tokens.size() && !isKeyword("OR") && !tokens.get(position).equals(")")) {
+                accept("AND");
+                result = and(result, factor());
+            }
+            return result;
+        }
+
+        TagExpression factor() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Tag expression ends unexpectedly");
+            }
+            if (accept("NOT")) {
+                return not(factor());
+            }
+            String token = tokens.get(position++);
+            if (token.equals("(")) {
+                TagExpression inner = expression();
+                if (position >= tokens.size() || !tokens.get(position).equals(")")) {
+                    throw new IllegalArgumentException("Missing ')' in tag expression");
+                }
+                position++;
+                return inner;
+            }
+            if (token.equals(")") || token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR")) {
+                throw new IllegalArgumentException("Unexpected '" + token + "' in tag expression");
+            }
+            return tag(token);
+        }
+
+        private boolean isKeyword(String keyword) {
+            return position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword);
+        }
+
+        private boolean accept(String keyword) {
+            if (isKeyword(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.umassdining.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket refilled continuously at a fixed rate up to a burst capacity.
+ *
+ * Callers reserve a token and then wait outside the lock for their turn,
+ * so concurrent callers queue up one refill interval apart instead of
+ * polling. The lock is a ReentrantLock so waiting virtual threads never pin
+ * their carrier.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double nanosPerToken;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // May go negative: each reservation past zero is a caller queued for a future token
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.capacity = burst;
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Take a token, blocking until it is available
+     */
+    public void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Take a token now or in the future; returns nanoseconds until it may be used
+     */
+    public long reserve() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+            refilledAt = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
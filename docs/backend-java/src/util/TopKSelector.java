@@ -0,0 +1,103 @@
+package com.umassdining.util;
+
+/**
+ * Keeps the K highest-scoring int indices seen so far.
+ *
+ * Backed by a fixed-size binary min-heap over parallel primitive arrays, so
+ * offering a candidate is O(log K) and never allocates. Ties are broken in
+ * favour of the lower index, which matches a stable descending sort.
+ */
+public final class TopKSelector {
+
+    private final int[] indices;
+    private final double[] scores;
+    private int size;
+
+    public TopKSelector(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.indices = new int[k];
+        this.scores = new double[k];
+    }
+
+    public void offer(int index, double score) {
+        if (indices.length == 0) {
+            return;
+        }
+        if (size < indices.length) {
+            indices[size] = index;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (better(index, score, indices[0], scores[0])) {
+            indices[0] = index;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empty the selector into the given arrays, best first; returns the number of entries written
+     */
+    public int drainDescending(int[] indexOut, double[] scoreOut) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            indexOut[i] = indices[0];
+            scoreOut[i] = scores[0];
+            size--;
+            if (size > 0) {
+                indices[0] = indices[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return count;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(indices[parent], scores[parent], indices[i], scores[i])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(indices[left], scores[left], indices[right], scores[right])) {
+                worst = right;
+            }
+            if (!better(indices[i], scores[i], indices[worst], scores[worst])) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private static boolean better(int indexA, double scoreA, int indexB, double scoreB) {
+        return scoreA > scoreB || (scoreA == scoreB && indexA < indexB);
+    }
+
+    private void swap(int a, int b) {
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -121,7 +121,7 @@ class MenuItemDB:
         """Get all menu items for a date"""
         query = """
             SELECT * FROM menu_items 
-            WHERE menu_date = %s
+            WHERE menu_date = %s AND removed_at IS NULL
             ORDER BY dining_hall_id, meal_type, category
         """
         
@@ -144,7 +144,7 @@ class MenuItemDB:
     
     def menu_exists_for_date(self, menu_date: date) -> bool:
         """Check if menu data exists for a date"""
-        query = "SELECT EXISTS(SELECT 1 FROM menu_items WHERE menu_date = %s)"
+        query = "SELECT EXISTS(SELECT 1 FROM menu_items WHERE menu_date = %s AND removed_at IS NULL)"
         
         with self.db.get_cursor(commit=False) as cursor:
             cursor.execute(query, (menu_date,))
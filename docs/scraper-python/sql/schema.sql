@@ -34,6 +34,9 @@ CREATE TABLE IF NOT EXISTS menu_items (
     fat INTEGER,
     tags TEXT[] DEFAULT '{}',
     created_at TIMESTAMPTZ DEFAULT NOW(),
+    -- Set when the page stops listing a rated item; such rows are kept for
+    -- their ratings but left out of every menu read
+    removed_at TIMESTAMPTZ,
     
     -- Unique constraint to prevent duplicates
     UNIQUE(dining_hall_id, name, meal_type, menu_date)
@@ -66,10 +69,41 @@ CREATE TABLE IF NOT EXISTS meal_ratings (
     UNIQUE(user_id, menu_item_id)
 );
 
+-- ===========================================
+-- MENU ITEM RATING STATS TABLE
+-- ===========================================
+-- Rating histogram per menu item, flushed periodically from the API's
+-- in-memory counters, which are rebuilt from meal_ratings at startup
+CREATE TABLE IF NOT EXISTS menu_item_rating_stats (
+    menu_item_id UUID PRIMARY KEY REFERENCES menu_items(id) ON DELETE CASCADE,
+    count_1 BIGINT NOT NULL DEFAULT 0,
+    count_2 BIGINT NOT NULL DEFAULT 0,
+    count_3 BIGINT NOT NULL DEFAULT 0,
+    count_4 BIGINT NOT NULL DEFAULT 0,
+    count_5 BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ DEFAULT NOW()
+);
+
+-- ===========================================
+-- SCRAPE PAGE STATE TABLE
+-- ===========================================
+-- Validators and body hash of each scraped page, so the API's scraper can
+-- send conditional requests and skip pages that have not changed
+CREATE TABLE IF NOT EXISTS scrape_page_state (
+    url TEXT PRIMARY KEY,
+    menu_date DATE,
+    etag TEXT,
+    last_modified TEXT,
+    content_hash VARCHAR(64),
+    checked_at TIMESTAMPTZ,
+    changed_at TIMESTAMPTZ
+);
+
 -- ===========================================
 -- INDEXES
 -- ===========================================
-CREATE INDEX idx_menu_items_date ON menu_items(menu_date);
+-- Also serves keyset pagination of menu history on (menu_date, id)
+CREATE INDEX idx_menu_items_date_id ON menu_items(menu_date, id);
 CREATE INDEX idx_menu_items_hall_date ON menu_items(dining_hall_id, menu_date);
 CREATE INDEX idx_menu_items_meal_type ON menu_items(meal_type);
 CREATE INDEX idx_meal_ratings_user ON meal_ratings(user_id);